@@ -6,9 +6,14 @@ create table comment
     content TEXT not null,
     post_id bigint,
     writer bigint,
+    parent_id bigint,
+    path varchar(255),
+    depth integer not null default 0,
     primary key (comment_id)
 );
 
+create index idx_comment_post_path on comment (post_id, path);
+
 create table friend
 (
     user_id   bigint not null,
@@ -17,6 +22,22 @@ create table friend
     primary key (user_id, friend_id)
 );
 
+create index idx_friend_user_status on friend (user_id, status, friend_id);
+
+create index idx_friend_friend_user on friend (friend_id, user_id, status);
+
+create table friend_pair
+(
+    low_id  bigint  not null,
+    high_id bigint  not null,
+    state   tinyint not null,
+    primary key (low_id, high_id)
+);
+
+create index idx_friend_pair_low on friend_pair (low_id, state, high_id);
+
+create index idx_friend_pair_high on friend_pair (high_id, state, low_id);
+
 create table image
 (
     image_id bigint NOT NULL AUTO_INCREMENT,
@@ -26,9 +47,12 @@ create table image
 );
 
 
+-- 기존 데이터가 있으면 start with 를 max(id) + 1 이상으로 맞춘다.
+create sequence notification_seq start with 1 increment by 50;
+
 create table notification
 (
-    id         bigint NOT NULL AUTO_INCREMENT,
+    id         bigint NOT NULL,
     created_at timestamp,
     message    varchar(255),
     status     varchar(255),
@@ -36,9 +60,23 @@ create table notification
     type       varchar(255),
     recipient  bigint,
     writer_id  bigint,
+    actor_count integer not null default 1,
+    recent_actor_ids varchar(255),
+    aggregate_key varchar(255),
+    dedup_key  varchar(255),
     primary key (id)
 );
 
+alter table notification add constraint uk_notification_aggregate_key unique (aggregate_key);
+
+alter table notification add constraint uk_notification_dedup_key unique (dedup_key);
+
+create index idx_notification_recipient_status_type on notification (recipient, status, type);
+
+create index idx_notification_recipient_type_id on notification (recipient, type, id desc);
+
+create index idx_notification_type_status_created on notification (type, status, created_at);
+
 create table post
 (
     post_id    bigint NOT NULL AUTO_INCREMENT,
@@ -64,14 +102,26 @@ create table user
     primary key (user_id)
 );
 
+create index idx_user_name on user (name);
+
 create table chat_room
 (
     room_id              bigint NOT NULL AUTO_INCREMENT,
     participant1_user_id bigint,
     participant2_user_id bigint,
+    last_message_id      bigint,
+    last_message_preview varchar(100),
+    last_message_at      timestamp NULL,
     primary key (room_id)
 );
 
+create index idx_chat_room_participant1_last on chat_room (participant1_user_id, last_message_at);
+create index idx_chat_room_participant2_last on chat_room (participant2_user_id, last_message_at);
+
+-- 기존 데이터는 컬럼 추가 후 한번 채운다.
+-- update chat_room c join message m on m.message_id = (select max(message_id) from message where room_id = c.room_id)
+--     set c.last_message_id = m.message_id, c.last_message_preview = left(m.message, 100), c.last_message_at = m.time_stamp;
+
 create table message
 (
     message_id bigint NOT NULL AUTO_INCREMENT,
@@ -82,6 +132,8 @@ create table message
     primary key (message_id)
 );
 
+create index idx_message_room_id on message (room_id, message_id);
+
 create table likes (
     post_id bigint not null,
     writer bigint not null,
@@ -99,6 +151,8 @@ alter table comment add constraint FKaqdy2fu25ym7qpn6aajqf7mb2 foreign key (writ
 alter table comment add constraint FKs1slvnkuemjsq2kj4h3vhx7i1 foreign key (post_id) references post(post_id);
 alter table friend add constraint FK3uu8s7yyof1qmenthngm24hry foreign key (user_id) references user (user_id);
 alter table friend add constraint FKf9qk6e95h3da7o1u83ihtwrqa foreign key (friend_id) references user (user_id);
+alter table friend_pair add constraint FK_friend_pair_low foreign key (low_id) references user (user_id) on delete cascade;
+alter table friend_pair add constraint FK_friend_pair_high foreign key (high_id) references user (user_id) on delete cascade;
 alter table image add constraint FKe2l07hc93u2bbjnl80meu3rn4 foreign key (post_id) references post (post_id);
 alter table notification add constraint FK2yifcahfjv13yy7xj33xa606y foreign key (recipient) references user (user_id);
 alter table notification add constraint FKbtvkivatoh9yitle5unojiqt4 foreign key (writer_id) references user (user_id);
@@ -0,0 +1,50 @@
+package com.center.aurora.security;
+
+import com.center.aurora.config.AppProperties;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 토큰을 반복 검증할 때 매번 파싱하는 경우(이전)와 검증 캐시를 쓰는 경우(이후) 비교
+ * 이전 필터는 validateToken 으로 한번, getUserIdFromToken 으로 또 한번 파싱했으므로 기준도 두 번 파싱한다.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenProviderBenchmark {
+
+    private static final String SECRET = "926D96C90030DD58429D2751AC1BDBBC926D96C90030DD58429D2751AC1BDBBC";
+
+    private TokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setup(){
+        AppProperties appProperties = new AppProperties();
+        appProperties.getAuth().setTokenSecret(SECRET);
+        appProperties.getAuth().setTokenExpirationMsec(60 * 60 * 1000);
+        tokenProvider = new TokenProvider(appProperties);
+
+        token = Jwts.builder()
+                .setSubject("1")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60 * 60 * 1000))
+                .signWith(SignatureAlgorithm.HS512, SECRET)
+                .compact();
+    }
+
+    @Benchmark
+    public Long parseEveryTime(){
+        Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token);
+        return Long.parseLong(Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody().getSubject());
+    }
+
+    @Benchmark
+    public Long verifiedTokenCache(){
+        return tokenProvider.getUserIdFromToken(token);
+    }
+}
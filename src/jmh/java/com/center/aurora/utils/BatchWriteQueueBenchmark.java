@@ -0,0 +1,56 @@
+package com.center.aurora.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 알림을 받을 때마다 바로 한 건씩 쓰는 경우(이전)와 BatchWriteQueue 로 모아서 쓰는 경우(이후)의 처리량 비교.
+ * DB 는 커넥션 하나를 흉내내서 한번 쓸 때마다 왕복 비용 + 건당 비용을 직렬로 소모한다.
+ * 큐는 용량이 정해져 있고 가득 차면 호출 스레드에서 쓰므로 측정값은 쓰기 속도에 묶인다.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class BatchWriteQueueBenchmark {
+
+    /** insert 한번의 왕복(트랜잭션, 네트워크) 비용 * */
+    private static final long ROUND_TRIP_TOKENS = 20_000;
+    /** batch 안에서 한 건 늘어날 때의 비용 * */
+    private static final long PER_ROW_TOKENS = 500;
+
+    private final Object connection = new Object();
+
+    private BatchWriteQueue<Long> queue;
+
+    @Setup
+    public void setup(){
+        queue = new BatchWriteQueue<>("benchmark-writer", 10_000, 200, 50, BatchWriteQueue.Overflow.CALLER_RUNS, this::write);
+        queue.start();
+    }
+
+    @TearDown
+    public void tearDown(){
+        queue.stop();
+    }
+
+    private void write(List<Long> rows){
+        synchronized (connection){
+            Blackhole.consumeCPU(ROUND_TRIP_TOKENS + PER_ROW_TOKENS * rows.size());
+        }
+    }
+
+    @Benchmark
+    public void writeEach(){
+        write(Collections.singletonList(1L));
+    }
+
+    @Benchmark
+    public boolean writeQueued(){
+        return queue.enqueue(1L);
+    }
+}
@@ -2,10 +2,14 @@ package com.center.aurora.config;
 
 import lombok.Getter;
 import lombok.Setter;
+import com.center.aurora.domain.notification.NotificationType;
+import com.center.aurora.utils.BatchWriteQueue;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @ConfigurationProperties(prefix = "app")
@@ -13,15 +17,74 @@ public class AppProperties {
 
     private final Auth auth = new Auth();
     private final OAuth2 oauth2 = new OAuth2();
+    private final Realtime realtime = new Realtime();
+    private final Notification notification = new Notification();
+    private final Friendship friendship = new Friendship();
 
     @Getter @Setter
     public static final class Auth{
         private String tokenSecret;
         private long tokenExpirationMsec;
+        // 인증 필터가 캐시한 UserPrincipal 을 다시 DB 에서 읽기 전까지의 시간
+        private long principalCacheTtlMsec = 60 * 1000;
     }
 
     @Getter @Setter
     public static final class OAuth2{
         private List<String> authorizedRedirectUris = new ArrayList<>();
     }
+
+    @Getter @Setter
+    public static final class Realtime{
+        // 구독자가 없는 게시물의 업데이트 프레임은 보내지 않는다.
+        private boolean publishOnlyWatched = true;
+    }
+
+    @Getter @Setter
+    public static final class Notification{
+        // 이 시간 안에 같은 게시물로 들어온 POST 알림은 읽지 않은 기존 알림 하나로 합친다.
+        private long aggregateWindowMsec = 10 * 60 * 1000;
+        // 합쳐진 알림 푸시는 이 간격에 한번만 보낸다.
+        private long pushDebounceMsec = 1000;
+        // 종류별 보관 기간. 지정하지 않은 종류는 defaultRetention 을 쓴다.
+        private Retention defaultRetention = new Retention();
+        private Map<NotificationType, Retention> retention = new HashMap<>();
+        // 오래된 알림은 이 개수씩 지우고 배치 사이에 purgePauseMsec 만큼 쉰다.
+        private int purgeBatchSize = 1000;
+        private long purgePauseMsec = 200;
+
+        // 같은 (종류, 보낸 유저, 받는 유저, 대상) 의 친구 요청/수락 알림은 이 시간 안에 한번만 처리한다. (재시도 폭주 방지)
+        private long dedupWindowMsec = 5000;
+        // 알림 저장 큐. 가득 차면 writeOfferTimeoutMsec 만큼 기다린 뒤 writeOverflow 정책을 따른다.
+        private int writeQueueCapacity = 10_000;
+        private int writeBatchSize = 200;
+        private long writeOfferTimeoutMsec = 50;
+        private BatchWriteQueue.Overflow writeOverflow = BatchWriteQueue.Overflow.CALLER_RUNS;
+
+        public Retention getRetention(NotificationType type){
+            return retention.getOrDefault(type, defaultRetention);
+        }
+    }
+
+    @Getter @Setter
+    public static final class Retention{
+        // 생성된 지 이 시간이 지난 알림은 지운다. 0 이하이면 지우지 않는다.
+        private long readTtlMsec = 30L * 24 * 60 * 60 * 1000;
+        private long unreadTtlMsec = 90L * 24 * 60 * 60 * 1000;
+    }
+
+    @Getter @Setter
+    public static final class Friendship{
+        // 친구 관계 저장 방식. DIRECTED -> DUAL (양쪽에 쓰면서 friend_pair 로 이관) -> PAIR 순서로 전환한다.
+        private Storage storage = Storage.DIRECTED;
+
+        public enum Storage{
+            // 방향별로 friend 테이블에 두 행
+            DIRECTED,
+            // friend, friend_pair 양쪽에 쓰고 읽기는 friend 에서. 시작할 때 기존 행을 friend_pair 로 옮긴다.
+            DUAL,
+            // friend_pair 한 행만 사용
+            PAIR
+        }
+    }
 }
@@ -1,28 +1,67 @@
 package com.center.aurora.config;
 
+import com.center.aurora.security.TokenPrincipal;
 import com.center.aurora.security.TokenProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.stereotype.Component;
 
+/**
+ * CONNECT 에서 한번만 토큰을 검증하고 세션에 주체를 바인딩한다. (토큰이 없으면 익명 세션)
+ * 이후 프레임은 바인딩된 주체의 만료시각만 확인한다.
+ * /sub/notification/{userId} 아래 (배지 포함) 는 본인 토큰으로 연결한 세션만 구독할 수 있다.
+ * */
 @Slf4j
 @RequiredArgsConstructor
 @Component
 public class StompHandler implements ChannelInterceptor {
 
+    private static final String NOTIFICATION_TOPIC_PREFIX = "/sub/notification/";
+
     private final TokenProvider tokenProvider;
 
+    private final StompSessionRegistry stompSessionRegistry;
+
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
-        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if(accessor == null) return message;
+
         if(StompCommand.CONNECT == accessor.getCommand()){
-            tokenProvider.validateToken(accessor.getFirstNativeHeader(TokenProvider.ACCESS_TOKEN_NAME));
+            TokenPrincipal principal = tokenProvider.getPrincipalIfValid(accessor.getFirstNativeHeader(TokenProvider.ACCESS_TOKEN_NAME));
+            if(principal != null){
+                accessor.setUser(principal);
+                stompSessionRegistry.authenticated(accessor.getSessionId(), principal.getExpiresAt());
+            }
+        }else if(StompCommand.SEND == accessor.getCommand()
+                && accessor.getUser() instanceof TokenPrincipal
+                && ((TokenPrincipal) accessor.getUser()).isExpired()){
+            throw new MessageDeliveryException("만료된 JWT 토큰");
+        }else if(StompCommand.SUBSCRIBE == accessor.getCommand()){
+            checkNotificationOwner(accessor);
         }
         return message;
     }
+
+    private void checkNotificationOwner(StompHeaderAccessor accessor){
+        String destination = accessor.getDestination();
+        if(destination == null || !destination.startsWith(NOTIFICATION_TOPIC_PREFIX)) return;
+
+        String owner = destination.substring(NOTIFICATION_TOPIC_PREFIX.length());
+        int end = owner.indexOf('/');
+        if(end >= 0) owner = owner.substring(0, end);
+
+        if(!(accessor.getUser() instanceof TokenPrincipal)
+                || ((TokenPrincipal) accessor.getUser()).isExpired()
+                || !owner.equals(accessor.getUser().getName())){
+            throw new MessageDeliveryException("다른 유저의 알림은 구독할 수 없습니다.");
+        }
+    }
 }
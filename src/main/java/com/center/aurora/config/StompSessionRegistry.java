@@ -0,0 +1,55 @@
+package com.center.aurora.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 열린 웹소켓 세션과, CONNECT 에서 인증된 세션의 토큰 만료시각을 들고 있는다.
+ * 토큰이 만료된 세션은 주기적으로 닫는다. (STOMP 세션 id == 웹소켓 세션 id)
+ * */
+@Slf4j
+@Component
+public class StompSessionRegistry {
+
+    private static final CloseStatus TOKEN_EXPIRED = CloseStatus.POLICY_VIOLATION.withReason("token expired");
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+
+    public void opened(WebSocketSession session){
+        sessions.put(session.getId(), session);
+    }
+
+    public void closed(String sessionId){
+        sessions.remove(sessionId);
+        expiries.remove(sessionId);
+    }
+
+    public void authenticated(String sessionId, long expiresAt){
+        expiries.put(sessionId, expiresAt);
+    }
+
+    @Scheduled(fixedDelay = 30 * 1000)
+    public void sweepExpired(){
+        long now = System.currentTimeMillis();
+        expiries.forEach((sessionId, expiresAt) -> {
+            if(expiresAt > now) return;
+
+            expiries.remove(sessionId);
+            WebSocketSession session = sessions.remove(sessionId);
+            if(session == null) return;
+            try {
+                session.close(TOKEN_EXPIRED);
+            } catch (IOException ex){
+                log.warn("만료된 STOMP 세션을 닫지 못했습니다. sessionId = {}", sessionId, ex);
+            }
+        });
+    }
+}
@@ -3,8 +3,8 @@ package com.center.aurora.controller;
 import com.center.aurora.security.CurrentUser;
 import com.center.aurora.security.UserPrincipal;
 import com.center.aurora.service.chat.ChatRoomService;
-import com.center.aurora.service.chat.dto.ChatRoomDto;
 import com.center.aurora.service.chat.dto.ChatRoomListDto;
+import com.center.aurora.service.chat.dto.MessagePageDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
@@ -30,11 +30,25 @@ public class ChatRoomController {
         chatRoomService.createChatRoom(user.getId(), friendId);
     }
 
+    /**
+     * 최신 메시지 한 페이지
+     * */
     @GetMapping("/room/{roomId}")
-    public ChatRoomDto roomInfo(@CurrentUser UserPrincipal user, @PathVariable Long roomId) throws Exception{
+    public MessagePageDto roomInfo(@CurrentUser UserPrincipal user, @PathVariable Long roomId) throws Exception{
         return chatRoomService.findRoomById(roomId, user.getId());
     }
 
+    /**
+     * before (메시지 id) 이전 메시지를 size 개씩. 응답의 nextCursor 를 다음 before 로 넘긴다.
+     * */
+    @GetMapping("/room/{roomId}/messages")
+    public MessagePageDto messages(@CurrentUser UserPrincipal user,
+                                   @PathVariable Long roomId,
+                                   @RequestParam(required = false) Long before,
+                                   @RequestParam(defaultValue = "30") int size) throws Exception{
+        return chatRoomService.findMessages(roomId, user.getId(), before, size);
+    }
+
     @DeleteMapping("/room/{roomId}")
     public void deleteRoom(@PathVariable Long roomId) throws IllegalAccessException {
         chatRoomService.deleteRoomById(roomId);
@@ -7,6 +7,7 @@ import com.center.aurora.service.notification.NotificationService;
 import com.center.aurora.service.notification.dto.FriendRequestListDto;
 import com.center.aurora.service.notification.dto.NotificationCountDto;
 import com.center.aurora.service.notification.dto.NotificationListDto;
+import com.center.aurora.service.notification.dto.NotificationPageDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,6 +20,9 @@ public class NotificationController {
 
     private final NotificationService notificationService;
 
+    /**
+     * 웹소켓 클라이언트는 /sub/notification/{userId}/badge 를 구독하면 이 API 를 폴링하지 않아도 된다.
+     * */
     @GetMapping("/count")
     public NotificationCountDto getAllNotifications(@CurrentUser UserPrincipal user){
         return notificationService.getAllNotificationCount(user.getId());
@@ -33,15 +37,45 @@ public class NotificationController {
         }
     }
 
+    /**
+     * type 이 없으면 모든 종류, upTo 가 없으면 지금까지 온 알림 전부 읽음 처리
+     * */
+    @PatchMapping("/read-all")
+    public int readAllNotifications(@CurrentUser UserPrincipal user,
+                                    @RequestParam(required = false) NotificationType type,
+                                    @RequestParam(required = false) Long upTo){
+        return notificationService.updateAllNotificationStatus(user.getId(), type, upTo);
+    }
+
+    /**
+     * 최신 MAX_PAGE_SIZE 개만 반환한다. 그 이후는 /friend/page 로 조회
+     * */
     @GetMapping("/friend")
     public List<FriendRequestListDto> getAllFriendRequest(@CurrentUser UserPrincipal user){
         return notificationService.getAllFriendRequestNotification(user.getId());
     }
 
+    @GetMapping("/friend/page")
+    public NotificationPageDto<FriendRequestListDto> getFriendRequestPage(@CurrentUser UserPrincipal user,
+                                                                          @RequestParam(required = false) Long cursor,
+                                                                          @RequestParam(defaultValue = "20") int size){
+        return notificationService.getFriendRequestNotificationPage(user.getId(), cursor, size);
+    }
+
+    /**
+     * 최신 MAX_PAGE_SIZE 개만 반환한다. 그 이후는 /page 로 조회
+     * */
     @GetMapping("")
     public List<NotificationListDto> getAllNormalRequest(@CurrentUser UserPrincipal user){
         return notificationService.getAllNormalNotification(user.getId());
     }
 
+    @GetMapping("/page")
+    public NotificationPageDto<NotificationListDto> getNormalPage(@CurrentUser UserPrincipal user,
+                                                                  @RequestParam(required = false) Long cursor,
+                                                                  @RequestParam(defaultValue = "20") int size){
+        return notificationService.getNormalNotificationPage(user.getId(), cursor, size);
+    }
+
 
 }
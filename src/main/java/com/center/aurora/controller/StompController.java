@@ -1,19 +1,22 @@
 package com.center.aurora.controller;
 
-import com.center.aurora.security.TokenProvider;
+import com.center.aurora.exception.UserAuthException;
+import com.center.aurora.security.TokenPrincipal;
 import com.center.aurora.service.chat.MessageService;
 import com.center.aurora.service.chat.dto.MessageRecvDto;
 import com.center.aurora.service.chat.dto.MessageSendDto;
-import com.center.aurora.service.notification.NotificationService;
+import com.center.aurora.service.notification.NotificationDeduplicator;
+import com.center.aurora.service.notification.NotificationWriteQueue;
 import com.center.aurora.service.notification.dto.NotificationRecvDto;
 import com.center.aurora.service.notification.dto.NotificationSendDto.NotificationSendDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Controller;
 
+import java.security.Principal;
+
 @Slf4j
 @RequiredArgsConstructor
 @Controller
@@ -23,13 +26,13 @@ public class StompController {
 
     private final MessageService messageService;
 
-    private final NotificationService notificationService;
+    private final NotificationWriteQueue notificationWriteQueue;
 
-    private final TokenProvider tokenProvider;
+    private final NotificationDeduplicator notificationDeduplicator;
 
     @MessageMapping("/chat/message")
-    public void message(MessageRecvDto message, @Header("Authorization") String token){
-        Long userId = tokenProvider.getUserIdFromToken(token);
+    public void message(MessageRecvDto message, Principal principal){
+        Long userId = userId(principal);
 
         log.info("Room ID = " + message.getRoomId() + " message = " + message.getMessage());
         MessageSendDto sendMessage = messageService.saveMessage(message, userId);
@@ -37,17 +40,33 @@ public class StompController {
         messagingTemplate.convertAndSend("/sub/chat/room/" + message.getRoomId(), sendMessage);
     }
 
+    /**
+     * 저장은 NotificationWriteQueue 가 모아서 하고, 푸시는 그 배치가 커밋된 뒤에 NotificationService 가 보낸다.
+     * 보낸 유저(from)는 세션에 바인딩된 주체와 같아야 한다.
+     * */
     @MessageMapping("/notification")
-    public void notification(NotificationRecvDto notificationRecvDto, @Header("Authorization") String token){
-        Long userId = tokenProvider.getUserIdFromToken(token);
+    public void notification(NotificationRecvDto notificationRecvDto, Principal principal){
+        Long userId = userId(principal);
+        if(!userId.equals(notificationRecvDto.getFrom())){
+            throw new UserAuthException("다른 유저 이름으로 알림을 보낼 수 없습니다.");
+        }
 
         log.info("전송 받은 알림 : " + notificationRecvDto);
-        NotificationSendDto notification = notificationService.saveNotification(notificationRecvDto);
-        log.info("돌려줄 Topic : " + "/sub/notification/" + notificationRecvDto.getTo());
-        log.info("돌려주는 정보 : " + notification);
-        messagingTemplate.convertAndSend("/sub/notification/" + notificationRecvDto.getTo(), notification);
+        if(!notificationDeduplicator.firstSeen(notificationRecvDto)){
+            log.info("중복 알림 무시 : " + notificationRecvDto);
+            return;
+        }
+        NotificationSendDto.of(notificationRecvDto); // 알 수 없는 종류는 큐에 넣기 전에 거절한다.
+        notificationWriteQueue.enqueue(notificationRecvDto);
     }
 
-
-
+    /**
+     * CONNECT 시점에 StompHandler 가 바인딩한 주체에서 유저 id 를 꺼낸다.
+     * */
+    private Long userId(Principal principal){
+        if(!(principal instanceof TokenPrincipal)){
+            throw new UserAuthException("인증되지 않은 STOMP 세션입니다.");
+        }
+        return ((TokenPrincipal) principal).getUserId();
+    }
 }
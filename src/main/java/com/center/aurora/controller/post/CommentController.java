@@ -4,9 +4,13 @@ import com.center.aurora.security.CurrentUser;
 import com.center.aurora.security.UserPrincipal;
 import com.center.aurora.service.post.CommentService;
 import com.center.aurora.service.post.dto.CommentDto;
+import com.center.aurora.service.post.dto.CommentThreadResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -20,6 +24,11 @@ public class CommentController {
         return commentService.getComment(post_id);
     }
 
+    @GetMapping("/{postId}/threads")
+    public List<CommentThreadResponse> getCommentThreads(@PathVariable("postId") Long post_id, @RequestParam(value = "replies", defaultValue = "3") int replies, @PageableDefault(size=10) Pageable pageable){
+        return commentService.getCommentThreads(post_id, pageable, replies);
+    }
+
     @PostMapping("/{postId}")
     public void createComment(@CurrentUser UserPrincipal userPrincipal, @PathVariable("postId") Long post_id,@RequestBody CommentDto commentDto){
         commentService.createComment(userPrincipal.getId(), post_id, commentDto);
@@ -3,15 +3,23 @@ package com.center.aurora.controller.post;
 import com.center.aurora.security.CurrentUser;
 import com.center.aurora.security.UserPrincipal;
 import com.center.aurora.service.post.LikeService;
+import com.center.aurora.service.post.dto.LikeToggleDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/likes")
 @RequiredArgsConstructor
 public class LikeController {
     private final LikeService likeService;
 
+    @PostMapping("/batch")
+    public void applyLikes(@CurrentUser UserPrincipal userPrincipal, @RequestBody List<LikeToggleDto> toggles){
+        likeService.applyLikes(userPrincipal.getId(), toggles);
+    }
+
     @PostMapping("/{postId}")
     public void createLike(@CurrentUser UserPrincipal userPrincipal, @PathVariable("postId") Long post_id){
         likeService.createLike(userPrincipal.getId(), post_id);
@@ -22,28 +22,28 @@ public class PostController {
     private final PostService postService;
 
     @GetMapping("/all/filter")
-    public List<PostResponse> getAllPostByMood(@RequestParam List<Mood> mood, @PageableDefault(size=5, sort="id", direction = Sort.Direction.DESC) Pageable pageable){
-        return postService.getAllPostByMood(pageable, mood);
+    public List<PostResponse> getAllPostByMood(@CurrentUser UserPrincipal userPrincipal, @RequestParam List<Mood> mood, @PageableDefault(size=5, sort="id", direction = Sort.Direction.DESC) Pageable pageable){
+        return postService.getAllPostByMood(pageable, mood, viewerId(userPrincipal));
     }
 
     @GetMapping("/{userId}/filter")
-    public List<PostResponse> getPostByUserAndMood(@PathVariable("userId") Long user_id, @RequestParam List<Mood> mood, @PageableDefault(size=5, sort="id", direction = Sort.Direction.DESC) Pageable pageable){
-        return postService.getPostByUserAndMood(user_id, pageable, mood);
+    public List<PostResponse> getPostByUserAndMood(@CurrentUser UserPrincipal userPrincipal, @PathVariable("userId") Long user_id, @RequestParam List<Mood> mood, @PageableDefault(size=5, sort="id", direction = Sort.Direction.DESC) Pageable pageable){
+        return postService.getPostByUserAndMood(user_id, pageable, mood, viewerId(userPrincipal));
     }
 
     @GetMapping("/all")
-    public List<PostResponse> getAllPosts(@PageableDefault(size=5, sort="id", direction = Sort.Direction.DESC) Pageable pageable) {
-        return postService.getAllPost(pageable);
+    public List<PostResponse> getAllPosts(@CurrentUser UserPrincipal userPrincipal, @PageableDefault(size=5, sort="id", direction = Sort.Direction.DESC) Pageable pageable) {
+        return postService.getAllPost(pageable, viewerId(userPrincipal));
     }
 
     @GetMapping("/{userId}")
-    public List<PostResponse> getPosts(@PathVariable("userId") Long user_id, @PageableDefault(size=5, sort="id", direction = Sort.Direction.DESC) Pageable pageable) {
-        return postService.getPost(user_id, pageable);
+    public List<PostResponse> getPosts(@CurrentUser UserPrincipal userPrincipal, @PathVariable("userId") Long user_id, @PageableDefault(size=5, sort="id", direction = Sort.Direction.DESC) Pageable pageable) {
+        return postService.getPost(user_id, pageable, viewerId(userPrincipal));
     }
 
     @GetMapping("/one/{postId}")
-    public PostResponse getOnePosts(@PathVariable("postId") Long post_id) {
-        return postService.getOnePost(post_id);
+    public PostResponse getOnePosts(@CurrentUser UserPrincipal userPrincipal, @PathVariable("postId") Long post_id) {
+        return postService.getOnePost(post_id, viewerId(userPrincipal));
     }
 
     @PostMapping("")
@@ -60,4 +60,8 @@ public class PostController {
     public void deletePost(@CurrentUser UserPrincipal userPrincipal, @PathVariable("postId") Long post_id) {
         postService.deletePost(userPrincipal.getId(), post_id);
     }
-}
\ No newline at end of file
+
+    private Long viewerId(UserPrincipal userPrincipal){
+        return (userPrincipal == null)? null : userPrincipal.getId();
+    }
+}
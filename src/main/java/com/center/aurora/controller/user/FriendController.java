@@ -4,8 +4,11 @@ import com.center.aurora.domain.post.Mood;
 import com.center.aurora.security.CurrentUser;
 import com.center.aurora.security.UserPrincipal;
 import com.center.aurora.service.chat.ChatRoomService;
+import com.center.aurora.service.user.FriendRecommendationService;
 import com.center.aurora.service.user.FriendService;
 import com.center.aurora.service.user.dto.FriendListDto;
+import com.center.aurora.service.user.dto.FriendPageDto;
+import com.center.aurora.service.user.dto.FriendRecommendationDto;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +25,7 @@ public class FriendController {
 
     private final FriendService friendService;
     private final ChatRoomService chatRoomService;
+    private final FriendRecommendationService friendRecommendationService;
 
     @GetMapping("")
     @ApiOperation(value = "친구 목록 전체 조회", notes = "현재 사용자의 모든 친구 목록을 반환합니다.")
@@ -29,6 +33,30 @@ public class FriendController {
         return friendService.findAllFriends(user.getId());
     }
 
+    @GetMapping("/page")
+    @ApiOperation(value = "친구 목록 페이지 조회", notes = "친구를 이름순으로 size 명씩 반환합니다. 다음 페이지는 마지막 친구의 이름과 id 를 afterName, afterId 로 넘깁니다.")
+    public FriendPageDto findFriends(@CurrentUser UserPrincipal user,
+                                     @RequestParam(required = false) String afterName,
+                                     @RequestParam(required = false) Long afterId,
+                                     @RequestParam(defaultValue = "20") int size){
+        return friendService.findFriends(user.getId(), afterName, afterId, size);
+    }
+
+    @GetMapping("/recommend")
+    @ApiOperation(value = "알 수도 있는 사람", notes = "친구의 친구 중 함께 아는 친구가 많은 순으로 추천합니다. (최대 50명)")
+    public List<FriendRecommendationDto> recommendFriends(@CurrentUser UserPrincipal user,
+                                                          @RequestParam(defaultValue = "10") int size){
+        int limit = Math.max(0, Math.min(size, FriendRecommendationService.MAX_RECOMMENDATIONS));
+        return friendRecommendationService.recommend(user.getId(), limit);
+    }
+
+    @GetMapping("/{id}/mutual")
+    @ApiOperation(value = "함께 아는 친구 조회", notes = "나와 id 에 해당하는 유저가 함께 아는 친구 목록을 반환합니다.")
+    @ApiImplicitParam(name = "id", value = "유저 Id값", dataType = "Long", paramType = "path")
+    public List<FriendListDto> findMutualFriends(@CurrentUser UserPrincipal user, @PathVariable Long id){
+        return friendService.findMutualFriends(user.getId(), id);
+    }
+
     @PostMapping("/{friendId}")
     @ApiOperation(value = "친구 추가", notes = "현재 사용자가 id에 해당하는 유저를 친구 목록에 추가합니다.")
     @ApiImplicitParam(name = "friendId", value = "친구 Id값", dataType = "Long", paramType = "path")
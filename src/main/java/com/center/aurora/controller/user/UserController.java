@@ -2,10 +2,10 @@ package com.center.aurora.controller.user;
 
 import com.center.aurora.domain.user.User;
 import com.center.aurora.domain.user.friend.FriendStatus;
-import com.center.aurora.repository.post.LikeRepository;
 import com.center.aurora.repository.user.UserRepository;
 import com.center.aurora.security.CurrentUser;
 import com.center.aurora.security.UserPrincipal;
+import com.center.aurora.service.post.LikeBitmapCache;
 import com.center.aurora.service.user.UserService;
 import com.center.aurora.service.user.dto.*;
 import io.swagger.annotations.ApiImplicitParam;
@@ -13,10 +13,14 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 @Slf4j
@@ -26,7 +30,7 @@ import java.util.List;
 public class UserController {
 
     private final UserRepository userRepository;
-    private final LikeRepository likeRepository;
+    private final LikeBitmapCache likeBitmapCache;
     private final UserService userService;
 
     @GetMapping("")
@@ -34,8 +38,21 @@ public class UserController {
     @ApiResponse(code = 200, message = "success", response = UserMeDto.class)
     public UserMeDto getCurrentUser(@CurrentUser UserPrincipal user) {
         User me = userRepository.findById(user.getId()).get();
-        List<Long> likeList = likeRepository.findAllPostIdByWriter(me);
-        return new UserMeDto(me,likeList);
+        String likeBitmap = Base64.getEncoder().encodeToString(likeBitmapCache.serialize(me.getId()));
+        return new UserMeDto(me, likeBitmap);
+    }
+
+    @GetMapping("/likes")
+    @ApiOperation(value = "좋아요 여부 조회", notes = "전달한 게시물 id 중 내가 좋아요한 게시물 id 만 반환합니다.")
+    public List<Long> findLikedPosts(@CurrentUser UserPrincipal user, @RequestParam List<Long> postIds){
+        if(user == null) return new ArrayList<>();
+        return likeBitmapCache.filterLiked(user.getId(), postIds);
+    }
+
+    @GetMapping("/batch")
+    @ApiOperation(value = "유저 여러명 조회", notes = "id 목록으로 유저 이름, 아바타를 한번에 조회합니다. (최대 100명)")
+    public List<UserSummary> getUsers(@RequestParam List<Long> ids){
+        return userService.getUserSummaries(ids);
     }
 
     @GetMapping("/{id}")
@@ -51,9 +68,11 @@ public class UserController {
     }
 
     @GetMapping("/search")
-    @ApiOperation(value = "유저 검색", notes = "이름을 기준으로 유저를 조회합니다.")
-    public List<UserListDto> findUsersByName(@RequestParam String name){
-        return userService.findUsersByName(name);
+    @ApiOperation(value = "유저 검색", notes = "이름(초성 포함) 접두사로 유저를 관련도 순으로 조회합니다.")
+    public List<UserListDto> findUsersByName(@CurrentUser UserPrincipal user, @RequestParam String name,
+                                             @PageableDefault(size = 20) Pageable pageable){
+        Long viewerId = (user == null)? null : user.getId();
+        return userService.findUsersByName(name, pageable, viewerId);
     }
 
     @PatchMapping(value = "")
@@ -79,7 +98,10 @@ public class UserController {
 
 
     @GetMapping("/random")
-    public List<RandomUserListDto> getRandomUsers(){
-        return userService.getRandomUsers();
+    @ApiOperation(value = "랜덤 유저 조회", notes = "랜덤 유저 3명을 조회합니다. excludeFriends 이면 나와 내 친구를 제외합니다.")
+    public List<RandomUserListDto> getRandomUsers(@CurrentUser UserPrincipal user,
+                                                  @RequestParam(defaultValue = "false") boolean excludeFriends){
+        Long myId = (user == null)? null : user.getId();
+        return userService.getRandomUsers(myId, excludeFriends);
     }
 }
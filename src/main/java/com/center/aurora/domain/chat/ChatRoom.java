@@ -9,6 +9,7 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -16,8 +17,14 @@ import java.util.UUID;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_chat_room_participant1_last", columnList = "participant1_user_id, lastMessageAt"),
+        @Index(name = "idx_chat_room_participant2_last", columnList = "participant2_user_id, lastMessageAt")
+})
 public class ChatRoom {
 
+    public static final int PREVIEW_LENGTH = 100;
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "room_id")
     private Long id;
@@ -33,6 +40,16 @@ public class ChatRoom {
     @OneToMany(mappedBy = "room", cascade = CascadeType.REMOVE)
     private List<Message> messages = new ArrayList<>();
 
+    /**
+     * 방 목록에서 messages 를 읽지 않도록 마지막 메시지를 방에 같이 들고 있는다. 메시지가 없으면 null
+     * */
+    private Long lastMessageId;
+
+    @Column(length = PREVIEW_LENGTH)
+    private String lastMessagePreview;
+
+    private LocalDateTime lastMessageAt;
+
     @Builder
     public ChatRoom(User participant1, User participant2) {
         this.participant1 = participant1;
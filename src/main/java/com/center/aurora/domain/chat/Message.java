@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 @Entity
+@Table(indexes = @Index(name = "idx_message_room_id", columnList = "room_id, message_id"))
 public class Message {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
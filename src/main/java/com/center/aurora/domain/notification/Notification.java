@@ -9,13 +9,32 @@ import org.hibernate.annotations.CreationTimestamp;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_notification_recipient_status_type", columnList = "recipient, status, type"),
+        @Index(name = "idx_notification_recipient_type_id", columnList = "recipient, type, id"),
+        @Index(name = "idx_notification_type_status_created", columnList = "type, status, createdAt")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_notification_aggregate_key", columnNames = "aggregateKey"),
+        @UniqueConstraint(name = "uk_notification_dedup_key", columnNames = "dedupKey")
+})
 public class Notification {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public static final int MAX_RECENT_ACTORS = 5;
+
+    /**
+     * IDENTITY 는 insert 마다 id 를 받아와야 해서 JDBC batch 가 꺼지므로 시퀀스에서 50개씩 미리 받아 쓴다.
+     * */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -39,6 +58,18 @@ public class Notification {
     @CreationTimestamp
     private LocalDateTime createdAt;
 
+    // 같은 대상에 대한 알림을 하나로 모은 경우, 모인 유저 수와 최근 유저 id 목록 (최신순, 콤마 구분)
+    // actorCount 는 근사값이다. 최근 목록에서 밀려난 유저가 다시 오면 한번 더 센다.
+    private int actorCount;
+
+    private String recentActorIds;
+
+    // 아직 모으는 중인 알림만 (종류:수신자:대상) 값을 가진다. 유니크 키라서 같은 대상에 모으는 알림은 하나뿐이다.
+    private String aggregateKey;
+
+    // 읽지 않은 친구 요청 알림만 (종류:보낸 유저:수신자:대상) 값을 가진다. 유니크 키라서 같은 요청 알림이 동시에 두 번 저장되지 않는다.
+    private String dedupKey;
+
     @Builder
     public Notification(User writer, User recipient, NotificationType type, Long targetId, String message, NotificationStatus status) {
         this.writer = writer;
@@ -47,9 +78,69 @@ public class Notification {
         this.targetId = targetId;
         this.message = message;
         this.status = status;
+        this.actorCount = 1;
+        this.recentActorIds = (writer == null)? null : String.valueOf(writer.getId());
+    }
+
+    public static String aggregateKeyOf(Long recipientId, NotificationType type, Long targetId){
+        return type.name() + ":" + recipientId + ":" + targetId;
+    }
+
+    public void openAggregate(){
+        this.aggregateKey = aggregateKeyOf(recipient.getId(), type, targetId);
+    }
+
+    /**
+     * 읽었거나 창이 지난 알림은 키를 비워서 같은 대상의 새 알림이 키를 쓸 수 있게 한다.
+     * */
+    public void closeAggregate(){
+        this.aggregateKey = null;
+    }
+
+    public static String dedupKeyOf(Long writerId, Long recipientId, NotificationType type, Long targetId){
+        return type.name() + ":" + writerId + ":" + recipientId + ":" + targetId;
+    }
+
+    public void openDedup(){
+        this.dedupKey = dedupKeyOf(writer.getId(), recipient.getId(), type, targetId);
+    }
+
+    /**
+     * 같은 (수신자, 대상)으로 들어온 알림을 기존 알림에 합친다.
+     * 최근 유저 목록은 MAX_RECENT_ACTORS 개까지만 들고 있으므로 actorCount 는 서로 다른 유저 수의 근사값이다.
+     * */
+    public void aggregate(User writer, String message){
+        List<Long> actors = getRecentActors();
+        if(!actors.contains(writer.getId())){
+            this.actorCount++;
+        }
+        actors.remove(writer.getId());
+        actors.add(0, writer.getId());
+        if(actors.size() > MAX_RECENT_ACTORS) actors = actors.subList(0, MAX_RECENT_ACTORS);
+
+        this.writer = writer;
+        this.message = message;
+        this.recentActorIds = actors.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    public List<Long> getRecentActors(){
+        return parseActorIds(recentActorIds);
+    }
+
+    public static List<Long> parseActorIds(String recentActorIds){
+        if(recentActorIds == null || recentActorIds.isEmpty()) return new ArrayList<>();
+        return Arrays.stream(recentActorIds.split(","))
+                .map(Long::valueOf)
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 
-    public void read(){
+    /**
+     * 읽지 않은 상태였다가 읽음으로 바뀌었으면 true. 읽은 알림은 같은 요청이 다시 알림을 만들 수 있게 dedupKey 를 비운다.
+     * */
+    public boolean read(){
+        if(this.status == NotificationStatus.READ) return false;
         this.status = NotificationStatus.READ;
+        this.dedupKey = null;
+        return true;
     }
 }
@@ -11,8 +11,19 @@ import javax.persistence.*;
 
 @Entity
 @Getter
+@Table(indexes = @Index(name = "idx_comment_post_path", columnList = "post_id, path"))
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Comment {
+
+    /**
+     * path 는 루트부터 자기 자신까지의 id 를 Long 최대 자릿수(19) 고정 폭으로 이어 붙인 값이다. (ex. 0000000000000000012/0000000000000000034/)
+     * 문자열 정렬 순서가 곧 스레드 순서가 되고, 서브트리는 path 접두사 범위 하나로 조회/삭제할 수 있다.
+     * */
+    public static final int PATH_SEGMENT_LENGTH = 20;
+    public static final int PATH_LENGTH = 255;
+    /** path 길이 안에 들어가는 가장 깊은 답글의 depth (루트는 0) * */
+    public static final int MAX_DEPTH = PATH_LENGTH / PATH_SEGMENT_LENGTH - 1;
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "comment_id")
     private Long id;
@@ -28,11 +39,34 @@ public class Comment {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content;
 
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    @Column(length = PATH_LENGTH)
+    private String path;
+
+    private int depth;
+
     @Builder
-    public Comment(User writer, Post post, String content) {
+    public Comment(User writer, Post post, String content, Comment parent) {
         this.writer = writer;
         this.post = post;
         this.content = content;
+        if(parent != null){
+            this.parentId = parent.getId();
+            this.depth = parent.getDepth() + 1;
+        }
+    }
+
+    /**
+     * IDENTITY 전략이라 insert 이후에 id 가 정해지므로 저장 직후 호출한다.
+     * */
+    public void assignPath(String parentPath){
+        this.path = ((parentPath == null)? "" : parentPath) + pathSegment(this.id);
+    }
+
+    public static String pathSegment(Long id){
+        return String.format("%0" + (PATH_SEGMENT_LENGTH - 1) + "d/", id);
     }
 
     public void update(String content){
@@ -16,6 +16,8 @@ import java.util.stream.Collectors;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 @Entity
+@EntityListeners(UserEntityListener.class)
+@Table(indexes = @Index(name = "idx_user_name", columnList = "name"))
 public class User {
 
     public static final String DEFAULT_IMAGE_URL = "https://aurora-image-bucket.s3.ap-northeast-2.amazonaws.com/aurora/defaultProfile.png";
@@ -0,0 +1,22 @@
+package com.center.aurora.domain.user;
+
+import lombok.Getter;
+
+/**
+ * 유저가 저장/수정/삭제되어 커밋된 뒤 발행된다. 메모리 인덱스, 캐시들이 이 이벤트로 갱신된다.
+ * */
+@Getter
+public class UserChangedEvent {
+
+    private final Long userId;
+    private final String name;
+    private final String image;
+    private final boolean deleted;
+
+    public UserChangedEvent(Long userId, String name, String image, boolean deleted) {
+        this.userId = userId;
+        this.name = name;
+        this.image = image;
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,32 @@
+package com.center.aurora.domain.user;
+
+import com.center.aurora.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+@RequiredArgsConstructor
+@Component
+public class UserEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(User user){
+        publish(new UserChangedEvent(user.getId(), user.getName(), user.getImage(), false));
+    }
+
+    @PostRemove
+    public void onRemove(User user){
+        publish(new UserChangedEvent(user.getId(), user.getName(), user.getImage(), true));
+    }
+
+    private void publish(UserChangedEvent event){
+        TransactionUtils.afterCommit(() -> eventPublisher.publishEvent(event));
+    }
+}
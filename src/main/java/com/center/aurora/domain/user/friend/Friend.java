@@ -11,6 +11,11 @@ import javax.persistence.*;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 @Entity
+@EntityListeners(FriendEntityListener.class)
+@Table(indexes = {
+        @Index(name = "idx_friend_user_status", columnList = "user_id, status, friend_id"),
+        @Index(name = "idx_friend_friend_user", columnList = "friend_id, user_id, status")
+})
 public class Friend {
 
     @EmbeddedId
@@ -33,6 +38,10 @@ public class Friend {
         this.status = FriendStatus.FRIEND;
     }
 
+    public void changeStatus(FriendStatus status){
+        this.status = status;
+    }
+
     @Builder
     public Friend(FriendId id, User me, User you, FriendStatus status) {
         this.id = id;
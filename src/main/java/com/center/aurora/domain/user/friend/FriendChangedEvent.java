@@ -0,0 +1,27 @@
+package com.center.aurora.domain.user.friend;
+
+import lombok.Getter;
+
+/**
+ * 친구 관계 한 방향(me -> you)이 저장/수정/삭제되어 커밋된 뒤 발행된다.
+ * */
+@Getter
+public class FriendChangedEvent {
+
+    private final Long me;
+    private final Long you;
+    private final FriendStatus status;
+    private final boolean deleted;
+
+    public FriendChangedEvent(Long me, Long you, FriendStatus status, boolean deleted) {
+        this.me = me;
+        this.you = you;
+        this.status = status;
+        this.deleted = deleted;
+    }
+
+    /** 이 변경 이후 me -> you 가 친구 상태인지 * */
+    public boolean isFriend(){
+        return !deleted && status == FriendStatus.FRIEND;
+    }
+}
@@ -0,0 +1,33 @@
+package com.center.aurora.domain.user.friend;
+
+import com.center.aurora.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+@RequiredArgsConstructor
+@Component
+public class FriendEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Friend friend){
+        publish(friend, false);
+    }
+
+    @PostRemove
+    public void onRemove(Friend friend){
+        publish(friend, true);
+    }
+
+    private void publish(Friend friend, boolean deleted){
+        FriendChangedEvent event = new FriendChangedEvent(friend.getId().getMe(), friend.getId().getYou(), friend.getStatus(), deleted);
+        TransactionUtils.afterCommit(() -> eventPublisher.publishEvent(event));
+    }
+}
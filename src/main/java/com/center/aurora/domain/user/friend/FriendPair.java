@@ -0,0 +1,82 @@
+package com.center.aurora.domain.user.friend;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * 두 유저의 친구 관계를 (작은 id, 큰 id) 한 행으로 저장한다.
+ * state 의 하위 2비트는 low -> high, 그 위 2비트는 high -> low 방향 상태이다. (0 없음, 1 ONGOING, 2 FRIEND)
+ * low_id, high_id 양쪽 인덱스로 어느 쪽에서 조회해도 한 행만 읽는다.
+ * */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@EntityListeners(FriendPairEntityListener.class)
+@Table(name = "friend_pair", indexes = {
+        @Index(name = "idx_friend_pair_low", columnList = "low_id, state, high_id"),
+        @Index(name = "idx_friend_pair_high", columnList = "high_id, state, low_id")
+})
+public class FriendPair {
+
+    private static final int BITS = 2;
+    private static final int MASK = (1 << BITS) - 1;
+
+    /** 양방향 모두 FRIEND * */
+    public static final int FRIENDS = encode(FriendStatus.FRIEND, FriendStatus.FRIEND);
+
+    @EmbeddedId
+    private FriendPairId id;
+
+    @Column(nullable = false)
+    private int state;
+
+    public FriendPair(FriendPairId id, int state) {
+        this.id = id;
+        this.state = state;
+    }
+
+    public static FriendPair of(Long userId1, Long userId2){
+        return new FriendPair(FriendPairId.of(userId1, userId2), 0);
+    }
+
+    /**
+     * from 에서 상대방으로 향하는 방향의 상태
+     * */
+    public FriendStatus statusOf(Long from){
+        return decode(state >> shift(from));
+    }
+
+    public void changeStatus(Long from, FriendStatus status){
+        int shift = shift(from);
+        this.state = (state & ~(MASK << shift)) | (bits(status) << shift);
+    }
+
+    public Long otherOf(Long userId){
+        return id.getLowId().equals(userId)? id.getHighId() : id.getLowId();
+    }
+
+    public static int encode(FriendStatus lowToHigh, FriendStatus highToLow){
+        return bits(lowToHigh) | (bits(highToLow) << BITS);
+    }
+
+    private int shift(Long from){
+        return id.getLowId().equals(from)? 0 : BITS;
+    }
+
+    private static int bits(FriendStatus status){
+        if(status == FriendStatus.ONGOING) return 1;
+        if(status == FriendStatus.FRIEND) return 2;
+        return 0;
+    }
+
+    private static FriendStatus decode(int bits){
+        switch (bits & MASK){
+            case 1: return FriendStatus.ONGOING;
+            case 2: return FriendStatus.FRIEND;
+            default: return FriendStatus.NOT_FRIEND;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.center.aurora.domain.user.friend;
+
+import com.center.aurora.config.AppProperties;
+import com.center.aurora.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * 한 행이 양방향을 담고 있으므로 방향별 FriendChangedEvent 두 개를 발행한다.
+ * DUAL 모드에서는 friend 테이블 쪽 리스너가 이미 발행하므로 PAIR 모드일 때만 발행한다.
+ * */
+@RequiredArgsConstructor
+@Component
+public class FriendPairEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AppProperties appProperties;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(FriendPair pair){
+        publish(pair, false);
+    }
+
+    @PostRemove
+    public void onRemove(FriendPair pair){
+        publish(pair, true);
+    }
+
+    private void publish(FriendPair pair, boolean deleted){
+        if(appProperties.getFriendship().getStorage() != AppProperties.Friendship.Storage.PAIR) return;
+
+        Long low = pair.getId().getLowId(), high = pair.getId().getHighId();
+        FriendChangedEvent lowToHigh = new FriendChangedEvent(low, high, pair.statusOf(low), deleted);
+        FriendChangedEvent highToLow = new FriendChangedEvent(high, low, pair.statusOf(high), deleted);
+        TransactionUtils.afterCommit(() -> {
+            eventPublisher.publishEvent(lowToHigh);
+            eventPublisher.publishEvent(highToLow);
+        });
+    }
+}
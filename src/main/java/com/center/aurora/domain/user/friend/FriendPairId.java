@@ -0,0 +1,45 @@
+package com.center.aurora.domain.user.friend;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.util.Objects;
+
+@Getter
+@NoArgsConstructor
+@Embeddable
+public class FriendPairId implements Serializable {
+    @Column(name = "low_id")
+    private Long lowId;
+
+    @Column(name = "high_id")
+    private Long highId;
+
+    public FriendPairId(Long lowId, Long highId) {
+        this.lowId = lowId;
+        this.highId = highId;
+    }
+
+    /**
+     * 두 유저의 순서와 관계없이 같은 키
+     * */
+    public static FriendPairId of(Long userId1, Long userId2){
+        return (userId1 < userId2)? new FriendPairId(userId1, userId2) : new FriendPairId(userId2, userId1);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FriendPairId that = (FriendPairId) o;
+        return getLowId().equals(that.getLowId()) && getHighId().equals(that.getHighId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getLowId(), getHighId());
+    }
+}
@@ -3,26 +3,106 @@ package com.center.aurora.repository;
 import com.center.aurora.domain.notification.Notification;
 import com.center.aurora.domain.notification.NotificationStatus;
 import com.center.aurora.domain.notification.NotificationType;
+import com.center.aurora.service.notification.dto.FriendRequestListDto;
+import com.center.aurora.service.notification.dto.NotificationListDto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
-    public Long countByRecipientIdAndStatusAndType(Long recipientId, NotificationStatus status, NotificationType type);
+    /**
+     * (수신자 id, 종류, 개수). (recipient, status, type) 인덱스만 읽는다.
+     * */
+    @Query("select n.recipient.id, n.type, count(n) from Notification n" +
+            " where n.recipient.id in :recipientIds and n.status = :status" +
+            " group by n.recipient.id, n.type")
+    public List<Object[]> countUnreadGroupByRecipientAndType(@Param("recipientIds") Collection<Long> recipientIds, @Param("status") NotificationStatus status);
 
-    public List<Notification> findAllByTargetIdAndTypeAndStatus(Long targetId, NotificationType type, NotificationStatus status);
+    /**
+     * 대상에 읽지 않은 알림이 있는 수신자 id. 아래 일괄 읽음 처리를 수신자마다 나눠 돌리는 데 쓴다.
+     * */
+    @Query("select distinct n.recipient.id from Notification n" +
+            " where n.targetId = :targetId and n.type = :type and n.status = :status")
+    public List<Long> findRecipientIdsByTarget(@Param("targetId") Long targetId, @Param("type") NotificationType type,
+                                               @Param("status") NotificationStatus status);
+
+    /**
+     * 바뀐 행 수를 그대로 메모리 카운터에서 빼므로 수신자와 종류가 하나로 정해지는 조건으로만 바꾼다.
+     * */
+    @Modifying(clearAutomatically = true)
+    @Query("update Notification n set n.status = :to, n.dedupKey = null" +
+            " where n.recipient.id = :recipientId and n.targetId = :targetId and n.type = :type and n.status = :from")
+    public int updateStatusByRecipientAndTarget(@Param("recipientId") Long recipientId, @Param("targetId") Long targetId, @Param("type") NotificationType type,
+                                                @Param("from") NotificationStatus from, @Param("to") NotificationStatus to);
+
+    /**
+     * 읽지 않은 알림이 있는 종류. type 이 null 이면 모든 종류
+     * */
+    @Query("select distinct n.type from Notification n" +
+            " where n.recipient.id = :recipientId and (:type is null or n.type = :type) and n.status = :status and n.id <= :maxId")
+    public List<NotificationType> findTypesByRecipient(@Param("recipientId") Long recipientId, @Param("type") NotificationType type,
+                                                       @Param("status") NotificationStatus status, @Param("maxId") Long maxId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Notification n set n.status = :to, n.dedupKey = null" +
+            " where n.recipient.id = :recipientId and n.type = :type and n.status = :from and n.id <= :maxId")
+    public int updateStatusByRecipient(@Param("recipientId") Long recipientId, @Param("type") NotificationType type,
+                                       @Param("from") NotificationStatus from, @Param("to") NotificationStatus to, @Param("maxId") Long maxId);
 
     public List<Notification> findAllByRecipientIdAndType(Long recipientId, NotificationType type);
 
     public List<Notification> findAllByRecipientIdAndTypeAndStatus(Long recipientId, NotificationType type, NotificationStatus status);
 
-    @Query("select n" +
-            " from Notification n" +
-            " where n.recipient.id = :id and " +
-            "( "  + "n.type = 'POST' or " +
-            "n.type = 'FRIEND_ACCEPT' " + ")")
-    public List<Notification> findAllNormalNotification(@Param("id") Long userId);
+    /**
+     * (보낸 유저, 받는 유저, 종류, 대상) 이 같은 알림이 아직 읽지 않은 채로 있는지. dedup_key 유니크 키로 찾는다.
+     * */
+    public boolean existsByDedupKey(String dedupKey);
+
+    /**
+     * 모으는 중인 알림을 쓰기 락을 잡고 읽는다. 같은 키로 동시에 들어온 알림은 이 락에서 차례로 합쳐진다.
+     * */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    public Optional<Notification> findByAggregateKey(String aggregateKey);
+
+    /**
+     * 보관 기간이 지난 알림 중 오래된 것부터 limit 개의 (id, 수신자 id) 를 쓰기 락을 잡고 읽는다.
+     * (type, status, created_at) 인덱스 순서 (뒤에 붙는 기본키 id 포함) 대로 정렬하므로 정렬 없이 앞에서 limit 개만 읽고, 한 배치가 잡는 락도 그 행들로 한정된다.
+     * */
+    @Query(nativeQuery = true, value = "select id, recipient from notification" +
+            " where type = :type and status = :status and created_at < :before order by created_at, id limit :limit for update")
+    public List<Object[]> findExpiredBatchForUpdate(@Param("type") String type, @Param("status") String status,
+                                                    @Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from Notification n where n.id in :ids")
+    public int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 한 종류의 인박스를 id 내림차순으로 cursor 다음부터 읽는다. (recipient, type, id) 인덱스 순서 그대로 읽고 작성자도 같이 가져온다.
+     * */
+    @Query("select new com.center.aurora.service.notification.dto.NotificationListDto(" +
+            "n.id, n.type, n.message, n.targetId, n.createdAt, n.status, n.actorCount, n.recentActorIds, w.id, w.name, w.image)" +
+            " from Notification n left join n.writer w" +
+            " where n.recipient.id = :recipientId and n.type = :type and n.id < :cursor" +
+            " order by n.id desc")
+    public List<NotificationListDto> findInboxPage(@Param("recipientId") Long recipientId, @Param("type") NotificationType type,
+                                                   @Param("cursor") Long cursor, Pageable pageable);
+
+    @Query("select new com.center.aurora.service.notification.dto.FriendRequestListDto(" +
+            "n.id, n.message, n.createdAt, n.status, w.id, w.name, w.image)" +
+            " from Notification n left join n.writer w" +
+            " where n.recipient.id = :recipientId and n.type = :type and n.status = :status and n.id < :cursor" +
+            " order by n.id desc")
+    public List<FriendRequestListDto> findFriendRequestPage(@Param("recipientId") Long recipientId, @Param("type") NotificationType type,
+                                                            @Param("status") NotificationStatus status, @Param("cursor") Long cursor, Pageable pageable);
 }
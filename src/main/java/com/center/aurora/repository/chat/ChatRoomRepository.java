@@ -2,19 +2,37 @@ package com.center.aurora.repository.chat;
 
 import com.center.aurora.domain.chat.ChatRoom;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 
 public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
 
-    @Query("select ch from ChatRoom ch where ch.participant1.id = :id or ch.participant2.id = :id")
+    /**
+     * 마지막 메시지가 최신인 방부터. 메시지가 없는 방(last_message_at null)은 맨 뒤에 온다.
+     * */
+    @Query("select ch from ChatRoom ch where ch.participant1.id = :id or ch.participant2.id = :id" +
+            " order by ch.lastMessageAt desc, ch.id desc")
     public List<ChatRoom> findAllMyChatRoom(@Param("id") Long id);
 
+    /**
+     * 더 최근 메시지가 이미 반영되어 있으면 덮어쓰지 않는다. 같은 방에 메시지가 동시에 저장되어도 마지막 메시지가 뒤로 가지 않는다.
+     * */
+    @Modifying
+    @Query("update ChatRoom ch set ch.lastMessageId = :messageId, ch.lastMessagePreview = :preview, ch.lastMessageAt = :at" +
+            " where ch.id = :roomId and (ch.lastMessageId is null or ch.lastMessageId < :messageId)")
+    public int updateLastMessage(@Param("roomId") Long roomId, @Param("messageId") Long messageId,
+                                 @Param("preview") String preview, @Param("at") LocalDateTime at);
+
     public Boolean existsChatRoomById(Long id);
 
+    @Query("select count(ch) > 0 from ChatRoom ch where ch.id = :roomId and (ch.participant1.id = :userId or ch.participant2.id = :userId)")
+    public boolean isParticipant(@Param("roomId") Long roomId, @Param("userId") Long userId);
+
     @Query("select ch from ChatRoom ch where ch.participant1.id = :id1 and ch.participant2.id = :id2")
     public ChatRoom findByParticipant1IdAndParticipant2Id(@Param("id1") Long id1, @Param("id2") Long id2);
 }
@@ -1,8 +1,23 @@
 package com.center.aurora.repository.chat;
 
 import com.center.aurora.domain.chat.Message;
+import com.center.aurora.service.chat.dto.MessageListDto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
+
+    /**
+     * before 보다 이전 메시지를 최신순으로. (room_id, message_id) 인덱스를 역순으로 읽고 보낸 유저는 join 으로 같이 읽는다.
+     * */
+    @Query("select new com.center.aurora.service.chat.dto.MessageListDto(m.id, m.message, m.timeStamp, s.id, s.name, s.image)" +
+            " from Message m left join m.sender s" +
+            " where m.room.id = :roomId and m.id < :before" +
+            " order by m.id desc")
+    public List<MessageListDto> findHistory(@Param("roomId") Long roomId, @Param("before") Long before, Pageable pageable);
 }
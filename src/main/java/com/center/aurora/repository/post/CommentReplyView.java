@@ -0,0 +1,13 @@
+package com.center.aurora.repository.post;
+
+public interface CommentReplyView {
+    Long getId();
+    String getContent();
+    Long getParentId();
+    String getPath();
+    Integer getDepth();
+    Long getWriterId();
+    String getWriterName();
+    String getWriterImage();
+    String getRootPath();
+}
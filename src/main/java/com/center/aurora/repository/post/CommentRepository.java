@@ -2,10 +2,56 @@ package com.center.aurora.repository.post;
 
 import com.center.aurora.domain.post.Comment;
 import com.center.aurora.domain.post.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByPostOrderByIdDesc(Post post);
+
+    @Query("Select c From Comment c where c.post.id = :postId and c.depth = 0 order by c.id desc")
+    List<Comment> findRootsByPostId(@Param("postId") Long postId, Pageable pageable);
+
+    /**
+     * 루트 댓글 목록에 달린 답글을 루트마다 path 순서로 최대 limit 개씩 한번의 쿼리로 가져온다.
+     * content 는 TEXT (H2 에서는 CLOB) 컬럼이라 native 쿼리에서 그대로 꺼내면 Clob 으로 나와 String 프로젝션으로 바뀌지 않으므로,
+     * concat 으로 문자열 값으로 바꿔서 꺼낸다.
+     * */
+    @Query(nativeQuery = true, value = "select t.id as id, concat(t.content, '') as content, t.parentId as parentId, t.path as path, t.depth as depth," +
+            " t.writerId as writerId, t.writerName as writerName, t.writerImage as writerImage, t.rootPath as rootPath" +
+            " from (select c.comment_id as id, c.content as content, c.parent_id as parentId, c.path as path, c.depth as depth," +
+            "              u.user_id as writerId, u.name as writerName, u.image as writerImage," +
+            "              substring(c.path, 1, " + Comment.PATH_SEGMENT_LENGTH + ") as rootPath," +
+            "              row_number() over (partition by substring(c.path, 1, " + Comment.PATH_SEGMENT_LENGTH + ") order by c.path) as rn" +
+            "       from comment c join user u on u.user_id = c.writer" +
+            "       where c.post_id = :postId and c.depth > 0" +
+            "         and substring(c.path, 1, " + Comment.PATH_SEGMENT_LENGTH + ") in (:rootPaths)) t" +
+            " where t.rn <= :limit" +
+            " order by t.path")
+    List<CommentReplyView> findFirstRepliesOfRoots(@Param("postId") Long postId, @Param("rootPaths") Collection<String> rootPaths, @Param("limit") int limit);
+
+    @Query("Select substring(c.path, 1, " + Comment.PATH_SEGMENT_LENGTH + "), count(c) From Comment c" +
+            " where c.post.id = :postId and c.depth > 0 and substring(c.path, 1, " + Comment.PATH_SEGMENT_LENGTH + ") in :rootPaths" +
+            " group by substring(c.path, 1, " + Comment.PATH_SEGMENT_LENGTH + ")")
+    List<Object[]> countRepliesOfRoots(@Param("postId") Long postId, @Param("rootPaths") Collection<String> rootPaths);
+
+    /**
+     * path 가 생기기 전의 댓글은 모두 루트이므로 자기 id 한 칸짜리 path 를 채운다. 한번에 최대 limit 개만 채우고 채운 행 수를 반환한다.
+     * */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "update comment set path = concat(lpad(comment_id, " + (Comment.PATH_SEGMENT_LENGTH - 1) + ", '0'), '/')" +
+            " where path is null limit :limit")
+    int backfillRootPaths(@Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("Delete From Comment c where c.post.id = :postId and c.path like concat(:path, '%')")
+    int deleteSubtreeByPath(@Param("postId") Long postId, @Param("path") String path);
 }
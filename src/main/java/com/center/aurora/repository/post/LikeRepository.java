@@ -4,17 +4,35 @@ import com.center.aurora.domain.post.like.Like;
 import com.center.aurora.domain.post.Post;
 import com.center.aurora.domain.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
-public interface LikeRepository extends JpaRepository<Like, Long> {
+public interface LikeRepository extends JpaRepository<Like, Long>, LikeRepositoryCustom {
+    String INSERT_IGNORE_SQL = "insert ignore into likes (post_id, writer) values (?, ?)";
+    String DELETE_SQL = "delete from likes where post_id = ? and writer = ?";
+
     @Query("Select l.post.id From Like l where l.writer = :writer")
     List<Long> findAllPostIdByWriter(@Param("writer") User writer);
 
+    @Query("Select l.post.id From Like l where l.writer.id = :userId")
+    List<Long> findAllPostIdByWriterId(@Param("userId") Long userId);
+
     Like findByPostAndWriter(Post post, User writer);
 
     @Query("Select count(l) From Like l where l.post = :post")
     int findAllByPost(@Param("post") Post post);
+
+    /**
+     * 이미 좋아요한 경우 아무것도 하지 않는다. User, Post 엔티티를 읽지 않는 단일 쿼리.
+     * */
+    @Modifying
+    @Query(nativeQuery = true, value = "insert ignore into likes (post_id, writer) values (:postId, :userId)")
+    int insertIgnore(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from likes where post_id = :postId and writer = :userId")
+    int deleteByPostIdAndUserId(@Param("postId") Long postId, @Param("userId") Long userId);
 }
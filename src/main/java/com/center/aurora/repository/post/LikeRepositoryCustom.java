@@ -0,0 +1,11 @@
+package com.center.aurora.repository.post;
+
+import java.util.List;
+
+public interface LikeRepositoryCustom {
+
+    /**
+     * 좋아요/좋아요 취소를 각각 하나의 JDBC batch 로 반영하고, 실제로 바뀐 게시물 id 를 반환한다.
+     * */
+    List<Long> applyLikeBatch(Long userId, List<Long> likePostIds, List<Long> unlikePostIds);
+}
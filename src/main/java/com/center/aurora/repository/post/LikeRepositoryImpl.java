@@ -0,0 +1,37 @@
+package com.center.aurora.repository.post;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class LikeRepositoryImpl implements LikeRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> applyLikeBatch(Long userId, List<Long> likePostIds, List<Long> unlikePostIds) {
+        List<Long> changed = new ArrayList<>();
+        changed.addAll(batch(LikeRepository.INSERT_IGNORE_SQL, userId, likePostIds));
+        changed.addAll(batch(LikeRepository.DELETE_SQL, userId, unlikePostIds));
+        return changed;
+    }
+
+    private List<Long> batch(String sql, Long userId, List<Long> postIds){
+        List<Long> changed = new ArrayList<>();
+        if(postIds.isEmpty()) return changed;
+
+        int[] counts = jdbcTemplate.batchUpdate(sql, postIds, postIds.size(), (ps, postId) -> {
+            ps.setLong(1, postId);
+            ps.setLong(2, userId);
+        })[0];
+        for (int i = 0; i < counts.length; i++) {
+            // rewriteBatchedStatements 등으로 개수를 알 수 없는 경우에도 변경된 것으로 본다.
+            if(counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) changed.add(postIds.get(i));
+        }
+        return changed;
+    }
+}
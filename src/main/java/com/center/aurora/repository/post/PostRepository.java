@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface PostRepository extends JpaRepository<Post, Long>{
@@ -20,4 +21,11 @@ public interface PostRepository extends JpaRepository<Post, Long>{
 
     @Query("Select p.mood From Post p where p.writer = :writer")
     List<Mood> findAllMoodByUser(@Param("writer") User writer);
-}
\ No newline at end of file
+
+    /**
+     * (게시물 id, 좋아요 수, 댓글 수) 를 여러 게시물에 대해 쿼리 한번으로 읽는다. 없는 게시물은 빠진다.
+     * */
+    @Query("Select p.id, (Select count(l) From Like l where l.post = p), (Select count(c) From Comment c where c.post = p)" +
+            " From Post p where p.id in :postIds")
+    List<Object[]> findCountsByIdIn(@Param("postIds") Collection<Long> postIds);
+}
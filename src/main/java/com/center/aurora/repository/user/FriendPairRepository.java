@@ -0,0 +1,69 @@
+package com.center.aurora.repository.user;
+
+import com.center.aurora.domain.user.friend.FriendPair;
+import com.center.aurora.domain.user.friend.FriendPairId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 모든 조회는 low_id 쪽, high_id 쪽을 각각의 인덱스로 읽어 union 한다.
+ * */
+public interface FriendPairRepository extends JpaRepository<FriendPair, FriendPairId>, FriendPairRepositoryCustom {
+
+    @Query(nativeQuery = true, value = "select high_id from friend_pair where low_id = :userId and state = :state " +
+            "union all select low_id from friend_pair where high_id = :userId and state = :state")
+    List<Number> findOtherIdsByState(@Param("userId") Long userId, @Param("state") int state);
+
+    @Query(nativeQuery = true, value = "select high_id from friend_pair where low_id = :userId " +
+            "union all select low_id from friend_pair where high_id = :userId")
+    List<Number> findAllOtherIds(@Param("userId") Long userId);
+
+    @Query(nativeQuery = true, value = "select (select count(*) from friend_pair where low_id = :userId and state = :state) " +
+            "+ (select count(*) from friend_pair where high_id = :userId and state = :state)")
+    Number countByUserAndState(@Param("userId") Long userId, @Param("state") int state);
+
+    @Query("Select p From FriendPair p where (p.id.lowId = :userId and p.id.highId in :targetIds) " +
+            "or (p.id.highId = :userId and p.id.lowId in :targetIds)")
+    List<FriendPair> findAllByUserAndTargets(@Param("userId") Long userId, @Param("targetIds") Collection<Long> targetIds);
+
+    /**
+     * 친구 목록 첫 페이지. FriendRepository.findFriendPage 와 같은 (id, name, image) 를 반환한다.
+     * */
+    @Query(nativeQuery = true, value = "select u.user_id, u.name, u.image from user u join (" +
+            "select high_id as friend_id from friend_pair where low_id = :userId and state = :state " +
+            "union all select low_id from friend_pair where high_id = :userId and state = :state) f on f.friend_id = u.user_id " +
+            "order by u.name, u.user_id")
+    List<Object[]> findFriendPage(@Param("userId") Long userId, @Param("state") int state, Pageable pageable);
+
+    @Query(nativeQuery = true, value = "select u.user_id, u.name, u.image from user u join (" +
+            "select high_id as friend_id from friend_pair where low_id = :userId and state = :state " +
+            "union all select low_id from friend_pair where high_id = :userId and state = :state) f on f.friend_id = u.user_id " +
+            "where u.name > :afterName or (u.name = :afterName and u.user_id > :afterId) " +
+            "order by u.name, u.user_id")
+    List<Object[]> findFriendPageAfter(@Param("userId") Long userId, @Param("state") int state,
+                                       @Param("afterName") String afterName, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * (target id, 함께 아는 친구 수). 내 친구 id 와 target 들의 친구 id 를 각각 union 으로 펼쳐 한번에 join 한다.
+     * */
+    @Query(nativeQuery = true, value = "select t.user_id, count(*) from (" +
+            "select high_id as friend_id from friend_pair where low_id = :userId and state = :state " +
+            "union all select low_id from friend_pair where high_id = :userId and state = :state) m join (" +
+            "select low_id as user_id, high_id as friend_id from friend_pair where low_id in (:targetIds) and state = :state " +
+            "union all select high_id, low_id from friend_pair where high_id in (:targetIds) and state = :state) t " +
+            "on t.friend_id = m.friend_id group by t.user_id")
+    List<Object[]> countMutualFriends(@Param("userId") Long userId, @Param("state") int state, @Param("targetIds") Collection<Long> targetIds);
+
+    /**
+     * 이미 행이 있으면 아무것도 하지 않는다. 엔티티 리스너를 거치지 않으므로 FRIENDS 상태에는 쓰지 않는다.
+     * */
+    @Modifying
+    @Query(nativeQuery = true, value = "insert ignore into friend_pair (low_id, high_id, state) values (:lowId, :highId, :state)")
+    int insertIgnore(@Param("lowId") Long lowId, @Param("highId") Long highId, @Param("state") int state);
+}
@@ -0,0 +1,20 @@
+package com.center.aurora.repository.user;
+
+import com.center.aurora.domain.user.friend.FriendPair;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public interface FriendPairRepositoryCustom {
+
+    /**
+     * 양방향 FRIEND 인 쌍을 (user_id, friend_id) 양쪽 방향으로 펼쳐 user_id, friend_id 순으로 흘려보낸다.
+     * */
+    void forEachFriendship(BiConsumer<Long, Long> consumer);
+
+    /**
+     * 이미 있는 쌍은 건드리지 않고 JDBC batch 한번으로 넣는다. 새로 들어간 행 수를 반환한다.
+     * 넣는 순간 friend 테이블의 두 방향 상태가 pair 의 상태와 같을 때만 넣으므로, 읽은 뒤에 지워지거나 바뀐 관계는 되살리지 않는다.
+     * */
+    int insertIfMatchesFriend(List<FriendPair> pairs);
+}
@@ -0,0 +1,61 @@
+package com.center.aurora.repository.user;
+
+import com.center.aurora.domain.user.friend.FriendPair;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+@RequiredArgsConstructor
+public class FriendPairRepositoryImpl implements FriendPairRepositoryCustom {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String INSERT_IF_MATCHES_FRIEND_SQL = "insert ignore into friend_pair (low_id, high_id, state) " +
+            "select ?, ?, ? from dual " +
+            "where coalesce((select status from friend where user_id = ? and friend_id = ?), 'NOT_FRIEND') = ? " +
+            "and coalesce((select status from friend where user_id = ? and friend_id = ?), 'NOT_FRIEND') = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void forEachFriendship(BiConsumer<Long, Long> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("select low_id, high_id from friend_pair where state = ? " +
+                    "union all select high_id, low_id from friend_pair where state = ? order by 1, 2");
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setInt(1, FriendPair.FRIENDS);
+            ps.setInt(2, FriendPair.FRIENDS);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getLong(2)));
+    }
+
+    @Override
+    public int insertIfMatchesFriend(List<FriendPair> pairs) {
+        if(pairs.isEmpty()) return 0;
+
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_IF_MATCHES_FRIEND_SQL,
+                pairs, pairs.size(), (ps, pair) -> {
+                    long lowId = pair.getId().getLowId(), highId = pair.getId().getHighId();
+                    ps.setLong(1, lowId);
+                    ps.setLong(2, highId);
+                    ps.setInt(3, pair.getState());
+                    ps.setLong(4, lowId);
+                    ps.setLong(5, highId);
+                    ps.setString(6, pair.statusOf(lowId).name());
+                    ps.setLong(7, highId);
+                    ps.setLong(8, lowId);
+                    ps.setString(9, pair.statusOf(highId).name());
+                })[0];
+        int inserted = 0;
+        for (int count : counts) {
+            // rewriteBatchedStatements 등으로 개수를 알 수 없으면 들어간 것으로 센다.
+            if(count > 0 || count == Statement.SUCCESS_NO_INFO) inserted++;
+        }
+        return inserted;
+    }
+}
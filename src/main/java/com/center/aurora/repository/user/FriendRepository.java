@@ -2,7 +2,68 @@ package com.center.aurora.repository.user;
 
 import com.center.aurora.domain.user.friend.Friend;
 import com.center.aurora.domain.user.friend.FriendId;
+import com.center.aurora.domain.user.friend.FriendStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface FriendRepository extends JpaRepository<Friend, FriendId> {
+import java.util.Collection;
+import java.util.List;
+
+public interface FriendRepository extends JpaRepository<Friend, FriendId>, FriendRepositoryCustom {
+
+    /**
+     * 친구 목록 첫 페이지. (id, name, image) 만 이름, id 순으로 조회한다.
+     * */
+    @Query("Select u.id, u.name, u.image From Friend f join f.you u " +
+            "where f.id.me = :userId and f.status = :status order by u.name, u.id")
+    List<Object[]> findFriendPage(@Param("userId") Long userId, @Param("status") FriendStatus status, Pageable pageable);
+
+    /**
+     * (afterName, afterId) 다음부터 이어지는 친구 목록 페이지
+     * */
+    @Query("Select u.id, u.name, u.image From Friend f join f.you u " +
+            "where f.id.me = :userId and f.status = :status " +
+            "and (u.name > :afterName or (u.name = :afterName and u.id > :afterId)) order by u.name, u.id")
+    List<Object[]> findFriendPageAfter(@Param("userId") Long userId, @Param("status") FriendStatus status,
+                                       @Param("afterName") String afterName, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("Select count(f) From Friend f where f.id.me = :userId and f.status = :status")
+    long countByMeAndStatus(@Param("userId") Long userId, @Param("status") FriendStatus status);
+
+    /**
+     * (target id, 상태). 관계가 없는 target 은 빠진다. PK (user_id, friend_id) 범위 조회 한번.
+     * */
+    @Query("Select f.id.you, f.status From Friend f where f.id.me = :userId and f.id.you in :targetIds")
+    List<Object[]> findStatusesByTargets(@Param("userId") Long userId, @Param("targetIds") Collection<Long> targetIds);
+
+    /**
+     * 친구, 친구 요청 중인 관계를 모두 포함한 상대 id 목록
+     * */
+    @Query("Select f.id.you From Friend f where f.id.me = :userId")
+    List<Long> findAllRelatedUserIds(@Param("userId") Long userId);
+
+    /**
+     * (target id, 함께 아는 친구 수). 함께 아는 친구가 없는 target 은 빠진다.
+     * */
+    @Query(nativeQuery = true, value = "select f2.user_id, count(*) from friend f1 " +
+            "join friend f2 on f2.friend_id = f1.friend_id " +
+            "where f1.user_id = :userId and f1.status = 'FRIEND' and f2.user_id in (:targetIds) and f2.status = 'FRIEND' " +
+            "group by f2.user_id")
+    List<Object[]> countMutualFriends(@Param("userId") Long userId, @Param("targetIds") Collection<Long> targetIds);
+
+    @Query(nativeQuery = true, value = "select f1.friend_id from friend f1 " +
+            "join friend f2 on f2.friend_id = f1.friend_id " +
+            "where f1.user_id = :userId and f1.status = 'FRIEND' and f2.user_id = :targetId and f2.status = 'FRIEND' " +
+            "order by f1.friend_id")
+    List<Number> findMutualFriendIds(@Param("userId") Long userId, @Param("targetId") Long targetId);
+
+    /**
+     * 이미 행이 있으면 아무것도 하지 않는다. 엔티티 리스너를 거치지 않으므로 FRIEND 상태에는 쓰지 않는다.
+     * */
+    @Modifying
+    @Query(nativeQuery = true, value = "insert ignore into friend (user_id, friend_id, status) values (:me, :you, :status)")
+    int insertIgnore(@Param("me") Long me, @Param("you") Long you, @Param("status") String status);
 }
@@ -0,0 +1,23 @@
+package com.center.aurora.repository.user;
+
+import com.center.aurora.domain.user.friend.FriendStatus;
+
+import java.util.function.BiConsumer;
+
+public interface FriendRepositoryCustom {
+
+    /**
+     * FRIEND 상태인 (user_id, friend_id) 를 user_id, friend_id 순으로 엔티티를 만들지 않고 흘려보낸다.
+     * */
+    void forEachFriendship(BiConsumer<Long, Long> consumer);
+
+    /**
+     * 방향별 두 행을 (작은 id, 큰 id) 한 쌍으로 합쳐서 흘려보낸다. 한쪽 방향만 있는 관계는 반대 방향이 NOT_FRIEND 이다.
+     * */
+    void forEachMergedPair(MergedPairConsumer consumer);
+
+    @FunctionalInterface
+    interface MergedPairConsumer {
+        void accept(long lowId, long highId, FriendStatus lowToHigh, FriendStatus highToLow);
+    }
+}
@@ -0,0 +1,51 @@
+package com.center.aurora.repository.user;
+
+import com.center.aurora.domain.user.friend.FriendStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.util.function.BiConsumer;
+
+@RequiredArgsConstructor
+public class FriendRepositoryImpl implements FriendRepositoryCustom {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    /**
+     * low < high 인 행에 반대 방향 행을 PK 로 붙이고, 반대 방향만 있는 행을 뒤에 이어 붙인다. 정렬 없이 흘려보낸다.
+     * */
+    private static final String MERGED_PAIR_SQL = "select f1.user_id, f1.friend_id, f1.status, f2.status from friend f1 " +
+            "left join friend f2 on f2.user_id = f1.friend_id and f2.friend_id = f1.user_id " +
+            "where f1.user_id < f1.friend_id " +
+            "union all " +
+            "select f1.friend_id, f1.user_id, null, f1.status from friend f1 " +
+            "where f1.user_id > f1.friend_id " +
+            "and not exists (select 1 from friend f2 where f2.user_id = f1.friend_id and f2.friend_id = f1.user_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void forEachFriendship(BiConsumer<Long, Long> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("select user_id, friend_id from friend where status = ? order by user_id, friend_id");
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setString(1, FriendStatus.FRIEND.name());
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getLong(2)));
+    }
+
+    @Override
+    public void forEachMergedPair(MergedPairConsumer consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(MERGED_PAIR_SQL);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getLong(2), status(rs.getString(3)), status(rs.getString(4))));
+    }
+
+    private static FriendStatus status(String value){
+        return (value == null)? FriendStatus.NOT_FRIEND : FriendStatus.valueOf(value);
+    }
+}
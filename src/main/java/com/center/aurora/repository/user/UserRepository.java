@@ -1,10 +1,12 @@
 package com.center.aurora.repository.user;
 
 import com.center.aurora.domain.user.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,9 +16,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
-    @Query("Select u From User u where u.name like :name%")
-    List<User> findUserByName(@Param("name") String name);
+    @Query("Select u From User u where u.name like concat(:name, '%') order by u.name")
+    List<User> findUserByName(@Param("name") String name, Pageable pageable);
 
-    @Query(nativeQuery = true, value = "select * from user ORDER BY RAND() LIMIT 3")
-    List<User> findAllRandom();
+    @Query("Select u.id, u.name From User u")
+    List<Object[]> findAllIdAndName();
+
+    @Query("Select u.id, u.name, u.image From User u where u.id in :ids")
+    List<Object[]> findAllSummaryByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("Select u.id From User u")
+    List<Long> findAllIds();
 }
@@ -21,7 +21,7 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private TokenProvider tokenProvider;
     @Autowired
-    private CustomUSerDetailsService customUSerDetailsService;
+    private UserPrincipalCache userPrincipalCache;
 
     private static final Logger logger = LoggerFactory.getLogger(TokenAuthenticationFilter.class);
 
@@ -32,9 +32,9 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
         try{
             String jwt = getJwtFromRequest(request);
 
-            if(StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)){
-                Long userId = tokenProvider.getUserIdFromToken(jwt);
-                UserDetails userDetails = customUSerDetailsService.loadUserById(userId);
+            Long userId = StringUtils.hasText(jwt)? tokenProvider.getUserIdIfValid(jwt) : null;
+            if(userId != null){
+                UserDetails userDetails = userPrincipalCache.get(userId);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails,
                         null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -0,0 +1,29 @@
+package com.center.aurora.security;
+
+import lombok.Getter;
+
+import java.security.Principal;
+
+/**
+ * 검증된 JWT 의 주체. STOMP 세션에는 CONNECT 시점에 이 값이 바인딩된다.
+ * */
+@Getter
+public class TokenPrincipal implements Principal {
+
+    private final Long userId;
+    private final long expiresAt;
+
+    public TokenPrincipal(Long userId, long expiresAt) {
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired(){
+        return expiresAt <= System.currentTimeMillis();
+    }
+
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+}
@@ -19,6 +19,8 @@ public class TokenProvider {
 
     private AppProperties appProperties;
 
+    private final VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+
     public TokenProvider(AppProperties appProperties) {
         this.appProperties = appProperties;
     }
@@ -49,17 +51,50 @@ public class TokenProvider {
     }
 
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
+        TokenPrincipal cached = verifiedTokenCache.get(token);
+        if(cached != null) return cached.getUserId();
+        return remember(token, parseClaims(token)).getUserId();
+    }
+
+    public boolean validateToken(String authToken) {
+        return getPrincipalIfValid(authToken) != null;
+    }
+
+    /**
+     * 한번만 파싱해서 검증과 유저 id 조회를 같이 한다. 유효하지 않은 토큰이면 null
+     * */
+    public Long getUserIdIfValid(String authToken) {
+        TokenPrincipal principal = getPrincipalIfValid(authToken);
+        return (principal == null)? null : principal.getUserId();
+    }
+
+    public TokenPrincipal getPrincipalIfValid(String authToken) {
+        TokenPrincipal cached = verifiedTokenCache.get(authToken);
+        if(cached != null) return cached;
+
+        Claims claims = parseValidClaims(authToken);
+        return (claims == null)? null : remember(authToken, claims);
+    }
+
+    private TokenPrincipal remember(String token, Claims claims) {
+        Long userId = Long.parseLong(claims.getSubject());
+        if(claims.getExpiration() == null) return new TokenPrincipal(userId, Long.MAX_VALUE);
+
+        TokenPrincipal principal = new TokenPrincipal(userId, claims.getExpiration().getTime());
+        verifiedTokenCache.put(token, principal);
+        return principal;
+    }
+
+    private Claims parseClaims(String token) {
+        return Jwts.parser()
                 .setSigningKey(appProperties.getAuth().getTokenSecret())
                 .parseClaimsJws(token)
                 .getBody();
-        return Long.parseLong(claims.getSubject());
     }
 
-    public boolean validateToken(String authToken) {
+    private Claims parseValidClaims(String authToken) {
         try {
-            Jwts.parser().setSigningKey(appProperties.getAuth().getTokenSecret()).parseClaimsJws(authToken);
-            return true;
+            return parseClaims(authToken);
         } catch (SignatureException ex) {
             log.error("유효하지 않은 JWT 서명");
         } catch (MalformedJwtException ex) {
@@ -71,6 +106,6 @@ public class TokenProvider {
         } catch (IllegalArgumentException ex) {
             log.error("비어있는 JWT");
         }
-        return false;
+        return null;
     }
 }
@@ -0,0 +1,95 @@
+package com.center.aurora.security;
+
+import com.center.aurora.config.AppProperties;
+import com.center.aurora.domain.user.UserChangedEvent;
+import com.center.aurora.utils.BoundedCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 인증 필터에서 매 요청마다 유저를 DB 에서 읽지 않도록 UserPrincipal 을 유저 id 별로 TTL 동안 들고 있는다.
+ * 유저 정보가 바뀌거나 (이름, 이메일, 권한 등) 삭제되면 커밋 후 바로 지운다.
+ * DB 에서 읽는 동안 지워졌으면 읽은 값은 넣지 않는다. (BoundedCache 버전)
+ * */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class UserPrincipalCache {
+
+    private static final int MAX_USERS = 10_000;
+
+    private final CustomUSerDetailsService customUSerDetailsService;
+    private final AppProperties appProperties;
+
+    private final BoundedCache<Long, Entry> principals = new BoundedCache<>(MAX_USERS);
+
+    /** 캐시로 아낀 DB 조회 수 * */
+    private final LongAdder hits = new LongAdder();
+    /** DB 에서 읽은 수 * */
+    private final LongAdder misses = new LongAdder();
+    private long reportedHits = 0;
+    private long reportedMisses = 0;
+
+    public UserDetails get(Long userId){
+        long now = System.currentTimeMillis();
+        Entry entry = principals.get(userId);
+        if(entry != null){
+            if(entry.expiresAt > now){
+                hits.increment();
+                return entry.principal;
+            }
+            principals.invalidate(userId);
+        }
+
+        misses.increment();
+        long version = principals.version(userId);
+        UserDetails principal = customUSerDetailsService.loadUserById(userId);
+        principals.putIfUnchanged(userId, new Entry(principal, now + appProperties.getAuth().getPrincipalCacheTtlMsec()), version);
+        return principal;
+    }
+
+    public void invalidate(Long userId){
+        principals.invalidate(userId);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event){
+        invalidate(event.getUserId());
+    }
+
+    public long getHitCount(){
+        return hits.sum();
+    }
+
+    public long getMissCount(){
+        return misses.sum();
+    }
+
+    @Scheduled(fixedDelay = 60 * 1000)
+    public synchronized void report(){
+        long hitCount = hits.sum(), missCount = misses.sum();
+        long requests = (hitCount - reportedHits) + (missCount - reportedMisses);
+        if(requests == 0) return;
+
+        log.info("principal cache : 인증 요청 {}건 중 DB 조회 {}건 절약 (누적 {}/{})",
+                requests, hitCount - reportedHits, hitCount, hitCount + missCount);
+        reportedHits = hitCount;
+        reportedMisses = missCount;
+    }
+
+    private static final class Entry {
+        final UserDetails principal;
+        final long expiresAt;
+
+        Entry(UserDetails principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.center.aurora.security;
+
+import com.center.aurora.utils.BoundedCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * 한번 검증한 JWT 의 결과(subject, 만료시각)를 토큰의 SHA-256 다이제스트를 키로 들고 있는다.
+ * 같은 토큰이 다시 오면 HMAC 검증과 base64/JSON 파싱을 건너뛴다. 원본 토큰은 저장하지 않는다.
+ * 항목은 토큰의 exp 까지만 유효하고, 개수가 가득 차면 가장 오래 쓰이지 않은 항목을 지운다. (LRU)
+ * */
+class VerifiedTokenCache {
+
+    private static final int MAX_TOKENS = 10_000;
+
+    private final BoundedCache<String, TokenPrincipal> tokens;
+
+    VerifiedTokenCache(){
+        this(MAX_TOKENS);
+    }
+
+    VerifiedTokenCache(int maxTokens){
+        this.tokens = new BoundedCache<>(maxTokens);
+    }
+
+    /** 검증된 적 있고 아직 만료되지 않은 토큰이면 그 주체, 아니면 null * */
+    TokenPrincipal get(String token){
+        if(token == null || token.isEmpty()) return null;
+        String key = digest(token);
+        TokenPrincipal verified = tokens.get(key);
+        if(verified == null) return null;
+        if(verified.isExpired()){
+            tokens.invalidate(key);
+            return null;
+        }
+        return verified;
+    }
+
+    void put(String token, TokenPrincipal principal){
+        tokens.put(digest(token), principal);
+    }
+
+    private static String digest(String token){
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex){
+            throw new IllegalStateException(ex);
+        }
+    }
+}
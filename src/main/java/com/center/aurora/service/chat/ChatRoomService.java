@@ -1,20 +1,24 @@
 package com.center.aurora.service.chat;
 
 import com.center.aurora.domain.chat.ChatRoom;
-import com.center.aurora.domain.chat.Message;
 import com.center.aurora.domain.user.User;
+import com.center.aurora.exception.BadRequestException;
+import com.center.aurora.exception.UserAuthException;
 import com.center.aurora.repository.chat.ChatRoomRepository;
 import com.center.aurora.repository.chat.MessageRepository;
 import com.center.aurora.repository.user.UserRepository;
-import com.center.aurora.service.chat.dto.ChatRoomDto;
 import com.center.aurora.service.chat.dto.ChatRoomListDto;
+import com.center.aurora.service.chat.dto.MessageListDto;
+import com.center.aurora.service.chat.dto.MessagePageDto;
+import com.center.aurora.service.user.UserSummaryCache;
+import com.center.aurora.service.user.dto.UserSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -22,20 +26,25 @@ import java.util.stream.Collectors;
 @Service
 public class ChatRoomService {
 
+    public static final int LATEST_MESSAGE_PAGE_SIZE = 30;
+    public static final int MAX_MESSAGE_PAGE_SIZE = 100;
+
     private final ChatRoomRepository chatRoomRepository;
 
+    private final MessageRepository messageRepository;
+
     private final UserRepository userRepository;
 
+    private final UserSummaryCache userSummaryCache;
+
     @Transactional(readOnly = true)
     public List<ChatRoomListDto> findAllByUserId(Long id){
         List<ChatRoom> rooms = chatRoomRepository.findAllMyChatRoom(id);
+        Map<Long, UserSummary> others = userSummaryCache.getAll(rooms.stream()
+                .map(x -> otherParticipantId(id, x))
+                .collect(Collectors.toSet()));
         return rooms.stream()
-            .map(x -> {
-                Message lastMessage = null;
-                if(x.getMessages().size() > 0) lastMessage = x.getMessages().get(x.getMessages().size()-1);
-                return new ChatRoomListDto(id, x, lastMessage);
-            })
-            .sorted(Comparator.comparing(ChatRoomListDto::getLastTimeStamp))
+            .map(x -> new ChatRoomListDto(x, others.get(otherParticipantId(id, x))))
             .collect(Collectors.toList());
 
     }
@@ -54,14 +63,38 @@ public class ChatRoomService {
         log.info("채팅방 생성 완료 ID = " + newChatRoom.getId());
     }
 
+    /**
+     * 방을 열 때는 최신 메시지 한 페이지만 준다. 이전 메시지는 findMessages 로 이어서 읽는다.
+     * */
+    @Transactional(readOnly = true)
+    public MessagePageDto findRoomById(Long roomId, Long meId) throws IllegalAccessException {
+        return findMessages(roomId, meId, null, LATEST_MESSAGE_PAGE_SIZE);
+    }
+
+    /**
+     * before 보다 이전 메시지 size 개. (room_id, message_id) 인덱스에서 size + 1 개만 읽어 다음 페이지 여부를 판단한다.
+     * 방 참여자만 읽을 수 있다.
+     * */
     @Transactional(readOnly = true)
-    public ChatRoomDto findRoomById(Long roomId, Long meId) throws IllegalAccessException {
+    public MessagePageDto findMessages(Long roomId, Long meId, Long before, int size) throws IllegalAccessException {
         Boolean isExist = chatRoomRepository.existsChatRoomById(roomId);
         if(!isExist){
             throw new IllegalAccessException();
         }
-        ChatRoom chatRoom = chatRoomRepository.findById(roomId).get();
-        return new ChatRoomDto(chatRoom);
+        if(!chatRoomRepository.isParticipant(roomId, meId)){
+            throw new UserAuthException("유저 권한이 없습니다.");
+        }
+        if(size < 1 || size > MAX_MESSAGE_PAGE_SIZE)
+            throw new BadRequestException("size 는 1 ~ " + MAX_MESSAGE_PAGE_SIZE + " 사이여야 합니다.");
+
+        List<MessageListDto> rows = messageRepository.findHistory(roomId, (before == null)? Long.MAX_VALUE : before, PageRequest.of(0, size + 1));
+        Long nextCursor = null;
+        if(rows.size() > size){
+            rows = new ArrayList<>(rows.subList(0, size));
+            nextCursor = rows.get(size - 1).id;
+        }
+        Collections.reverse(rows);
+        return new MessagePageDto(rows, nextCursor);
     }
 
     @Transactional
@@ -80,4 +113,9 @@ public class ChatRoomService {
         chatRoomRepository.delete(room);
         log.info("삭제 완료!");
     }
+
+    private Long otherParticipantId(Long meId, ChatRoom room){
+        Long participant1 = room.getParticipant1().getId();
+        return Objects.equals(participant1, meId)? room.getParticipant2().getId() : participant1;
+    }
 }
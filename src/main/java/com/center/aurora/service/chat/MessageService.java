@@ -1,5 +1,6 @@
 package com.center.aurora.service.chat;
 
+import com.center.aurora.domain.chat.ChatRoom;
 import com.center.aurora.domain.chat.Message;
 import com.center.aurora.repository.chat.ChatRoomRepository;
 import com.center.aurora.repository.chat.MessageRepository;
@@ -28,6 +29,12 @@ public class MessageService {
                 .room(chatRoomRepository.findById(message.getRoomId()).get())
                 .build();
         messageRepository.save(msg);
+        chatRoomRepository.updateLastMessage(message.getRoomId(), msg.getId(), preview(msg.getMessage()), msg.getTimeStamp());
         return new MessageSendDto(msg);
     }
+
+    private static String preview(String message){
+        if(message == null || message.length() <= ChatRoom.PREVIEW_LENGTH) return message;
+        return message.substring(0, ChatRoom.PREVIEW_LENGTH);
+    }
 }
@@ -1,8 +1,7 @@
 package com.center.aurora.service.chat.dto;
 
 import com.center.aurora.domain.chat.ChatRoom;
-import com.center.aurora.domain.chat.Message;
-import com.center.aurora.domain.user.User;
+import com.center.aurora.service.user.dto.UserSummary;
 import lombok.Getter;
 
 import java.time.LocalDateTime;
@@ -15,17 +14,19 @@ public class ChatRoomListDto {
     public String lastMessage;
     public LocalDateTime lastTimeStamp;
 
-    public ChatRoomListDto(Long meId, ChatRoom room, Message message){
-        boolean p1isMe = room.getParticipant1().getId() == meId;
+    /**
+     * other : 방의 참여자 중 내가 아닌 유저
+     * */
+    public ChatRoomListDto(ChatRoom room, UserSummary other){
         this.roomId = room.getId();
-        this.user = new Usr((p1isMe)? room.getParticipant2() : room.getParticipant1());
-        if(message == null) {
+        this.user = (other == null)? null : new Usr(other);
+        if(room.getLastMessageId() == null) {
             this.lastMessage = "";
             this.lastTimeStamp = null;
         }
         else {
-            this.lastMessage = message.getMessage();
-            this.lastTimeStamp = message.getTimeStamp();
+            this.lastMessage = room.getLastMessagePreview();
+            this.lastTimeStamp = room.getLastMessageAt();
         }
     }
 
@@ -34,10 +35,10 @@ public class ChatRoomListDto {
         public String name;
         public String avatar;
 
-        public Usr(User user) {
+        public Usr(UserSummary user) {
             this.id = user.getId();
             this.name = user.getName();
-            this.avatar = user.getImage();
+            this.avatar = user.getAvatar();
         }
     }
 }
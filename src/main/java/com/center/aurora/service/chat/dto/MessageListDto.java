@@ -0,0 +1,33 @@
+package com.center.aurora.service.chat.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 채팅방 메시지 한 건. 보낸 유저 요약은 조회 쿼리에서 join 으로 같이 읽는다.
+ * */
+public class MessageListDto {
+
+    public Long id;
+    public Usr sender;
+    public String message;
+    public LocalDateTime timeStamp;
+
+    public MessageListDto(Long id, String message, LocalDateTime timeStamp, Long senderId, String senderName, String senderImage) {
+        this.id = id;
+        this.sender = (senderId == null)? null : new Usr(senderId, senderName, senderImage);
+        this.message = message;
+        this.timeStamp = timeStamp;
+    }
+
+    public static class Usr{
+        public Long id;
+        public String name;
+        public String avatar;
+
+        public Usr(Long id, String name, String avatar) {
+            this.id = id;
+            this.name = name;
+            this.avatar = avatar;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.center.aurora.service.chat.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 채팅방 메시지 한 페이지. messages 는 오래된 순이고, 더 이전 메시지는 nextCursor 를 before 로 넘겨 조회한다.
+ * 가장 오래된 페이지면 nextCursor 가 null 이다.
+ * */
+@NoArgsConstructor
+@Getter
+public class MessagePageDto {
+
+    private List<MessageListDto> messages;
+
+    private Long nextCursor;
+
+    public MessagePageDto(List<MessageListDto> messages, Long nextCursor) {
+        this.messages = messages;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,169 @@
+package com.center.aurora.service.notification;
+
+import com.center.aurora.domain.notification.NotificationType;
+import com.center.aurora.security.TokenPrincipal;
+import com.center.aurora.service.notification.dto.NotificationBadgeDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽지 않은 알림 수 변경을 /sub/notification/{userId}/badge 로 푸시해서 GET /notification/count 폴링을 대신한다.
+ * 구독하면 전체 개수(sync) 프레임을 한번 보내고, 이후에는 유저별로 100ms 동안 바뀐 종류별 증감만 한 프레임으로 보낸다.
+ * 증감은 이벤트 값을 더하지 않고 카운터의 지금 값과 마지막으로 보낸 값의 차이로 만든다. 그래서 sync 와 겹쳐 두번 세거나
+ * 0 에서 잘린 카운터보다 더 빼서 배지가 음수가 되는 일이 없고, 클라이언트가 더한 값은 항상 카운터 값과 같다.
+ * 본인 토큰으로 구독한 유저만 추적하고, 구독자가 없는 유저의 변경은 모으지 않는다.
+ * */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class NotificationBadgePublisher {
+
+    public static final long WINDOW_MSEC = 100;
+    public static final String BADGE_TOPIC_PREFIX = "/sub/notification/";
+    public static final String BADGE_TOPIC_SUFFIX = "/badge";
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    private final UnreadNotificationCounter unreadNotificationCounter;
+
+    private final Map<Long, AtomicInteger> subscribers = new ConcurrentHashMap<>();
+
+    // sessionId -> (subscriptionId -> userId)
+    private final Map<String, Map<String, Long>> sessions = new ConcurrentHashMap<>();
+
+    /** 마지막 flush 뒤에 읽지 않은 알림 수가 바뀐 유저 * */
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    // userId -> 마지막으로 보낸 NotificationType ordinal 별 개수
+    private final Map<Long, int[]> sent = new ConcurrentHashMap<>();
+
+    /** 다음 flush 에서 전체 개수를 보낼 유저 * */
+    private final Set<Long> syncs = ConcurrentHashMap.newKeySet();
+
+    public static String topicOf(Long userId){
+        return BADGE_TOPIC_PREFIX + userId + BADGE_TOPIC_SUFFIX;
+    }
+
+    public boolean isSubscribed(Long userId){
+        AtomicInteger cnt = subscribers.get(userId);
+        return cnt != null && cnt.get() > 0;
+    }
+
+    @EventListener
+    public void onUnreadCountChanged(UnreadCountChangedEvent event){
+        if(!isSubscribed(event.getUserId())) return;
+
+        changed.add(event.getUserId());
+    }
+
+    /**
+     * 구독 프레임은 브로커에 등록되기 전에 이벤트로 먼저 오므로 sync 프레임은 바로 보내지 않고 다음 flush 에서 보낸다.
+     * */
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event){
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Long userId = parseUserId(accessor.getDestination());
+        if(userId == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) return;
+        if(!(accessor.getUser() instanceof TokenPrincipal) || !userId.equals(((TokenPrincipal) accessor.getUser()).getUserId())) return;
+
+        Long prev = sessions.computeIfAbsent(accessor.getSessionId(), k -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), userId);
+        if(prev == null){
+            subscribers.computeIfAbsent(userId, k -> new AtomicInteger()).incrementAndGet();
+        }
+        syncs.add(userId);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event){
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, Long> subscriptions = sessions.get(accessor.getSessionId());
+        if(subscriptions == null || accessor.getSubscriptionId() == null) return;
+
+        Long userId = subscriptions.remove(accessor.getSubscriptionId());
+        if(userId != null) release(userId);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event){
+        Map<String, Long> subscriptions = sessions.remove(event.getSessionId());
+        if(subscriptions == null) return;
+
+        subscriptions.values().forEach(this::release);
+    }
+
+    /**
+     * 카운터는 이벤트를 발행하기 전에 바뀌므로 표시를 먼저 지우고 읽으면 읽은 값에 빠진 변경은 다음 flush 에서 다시 보인다.
+     * */
+    @Scheduled(fixedDelay = WINDOW_MSEC)
+    public void flush(){
+        if(!syncs.isEmpty()){
+            for (Long userId : new ArrayList<>(syncs)) {
+                syncs.remove(userId);
+                changed.remove(userId);
+                Map<NotificationType, Long> counts = unreadNotificationCounter.get(userId);
+                sent.put(userId, toArray(counts));
+                send(userId, NotificationBadgeDto.sync(counts));
+            }
+        }
+
+        if(changed.isEmpty()) return;
+        for (Long userId : new ArrayList<>(changed)) {
+            changed.remove(userId);
+            int[] prev = sent.get(userId);
+            if(prev == null) continue;
+
+            int[] current = toArray(unreadNotificationCounter.get(userId));
+            int[] delta = new int[current.length];
+            for (int i = 0; i < current.length; i++) delta[i] = current[i] - prev[i];
+            sent.put(userId, current);
+            NotificationBadgeDto frame = NotificationBadgeDto.delta(delta);
+            if(frame != null) send(userId, frame);
+        }
+    }
+
+    private static int[] toArray(Map<NotificationType, Long> counts){
+        int[] ret = new int[NotificationType.values().length];
+        counts.forEach((type, cnt) -> ret[type.ordinal()] = cnt.intValue());
+        return ret;
+    }
+
+    private void send(Long userId, NotificationBadgeDto frame){
+        try {
+            messagingTemplate.convertAndSend(topicOf(userId), frame);
+        } catch (Exception ex){
+            log.error("알림 배지 전송 실패 userId = " + userId, ex);
+        }
+    }
+
+    private void release(Long userId){
+        subscribers.computeIfPresent(userId, (k, cnt) -> (cnt.decrementAndGet() <= 0)? null : cnt);
+        if(!isSubscribed(userId)){
+            changed.remove(userId);
+            sent.remove(userId);
+        }
+    }
+
+    private Long parseUserId(String destination){
+        if(destination == null || !destination.startsWith(BADGE_TOPIC_PREFIX) || !destination.endsWith(BADGE_TOPIC_SUFFIX)) return null;
+        try {
+            return Long.parseLong(destination.substring(BADGE_TOPIC_PREFIX.length(), destination.length() - BADGE_TOPIC_SUFFIX.length()));
+        } catch (NumberFormatException ex){
+            return null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.center.aurora.service.notification;
+
+import com.center.aurora.config.AppProperties;
+import com.center.aurora.domain.notification.NotificationType;
+import com.center.aurora.service.notification.dto.NotificationRecvDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * "친구 추가" 를 연타하거나 클라이언트가 재시도할 때 같은 친구 요청/수락 알림이 푸시/저장 큐에 여러 번 들어가지 않도록
+ * (종류, 보낸 유저, 받는 유저, 대상) 키를 app.notification.dedup-window-msec 동안 기억한다.
+ * 창이 지난 뒤의 중복은 저장할 때 DB 에서 한번 더 거른다.
+ * 키는 넣은 순서(= 만료 순서)로 들고 있으므로 만료된 키는 앞에서부터 지우고, MAX_KEYS 를 넘으면 가장 오래된 키를 버린다.
+ * */
+@RequiredArgsConstructor
+@Component
+public class NotificationDeduplicator {
+
+    private static final int MAX_KEYS = 100_000;
+
+    private final AppProperties appProperties;
+
+    // key -> 만료 시각. 넣은 순서. this 로 보호
+    private final LinkedHashMap<String, Long> recent = new LinkedHashMap<String, Long>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_KEYS;
+        }
+    };
+
+    /**
+     * 창 안에서 처음 본 알림이면 true. 친구 요청/수락 외의 알림은 항상 true
+     * */
+    public boolean firstSeen(NotificationRecvDto notificationRecvDto){
+        String type = notificationRecvDto.getType();
+        if(!NotificationType.FRIEND_REQUEST.name().equals(type) && !NotificationType.FRIEND_ACCEPT.name().equals(type)) return true;
+
+        String key = type + ":" + notificationRecvDto.getFrom() + ":" + notificationRecvDto.getTo() + ":" + notificationRecvDto.getTargetId();
+        long now = System.currentTimeMillis();
+        synchronized (this){
+            evictExpired(now);
+            if(recent.containsKey(key)) return false;
+            recent.put(key, now + appProperties.getNotification().getDedupWindowMsec());
+            return true;
+        }
+    }
+
+    @Scheduled(fixedDelay = 60 * 1000)
+    public synchronized void evictExpired(){
+        evictExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * 앞에서부터 만료된 키만 지우고 처음 만나는 살아있는 키에서 멈춘다.
+     * */
+    private void evictExpired(long now){
+        Iterator<Long> it = recent.values().iterator();
+        while(it.hasNext() && it.next() <= now) it.remove();
+    }
+}
@@ -0,0 +1,71 @@
+package com.center.aurora.service.notification;
+
+import com.center.aurora.config.AppProperties;
+import com.center.aurora.domain.notification.NotificationStatus;
+import com.center.aurora.domain.notification.NotificationType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 종류별 보관 기간(읽음 / 읽지 않음)이 지난 알림을 지운다.
+ * 한 배치는 purgeBatchSize 개만 지우는 짧은 트랜잭션이고, 배치 사이에 쉬어서 다른 쓰기가 락을 오래 기다리지 않게 한다.
+ * */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class NotificationPurgeJob {
+
+    private final NotificationService notificationService;
+
+    private final AppProperties appProperties;
+
+    @Scheduled(fixedDelay = 60 * 60 * 1000, initialDelay = 10 * 60 * 1000)
+    public void run(){
+        purge();
+    }
+
+    /**
+     * 지운 알림 수를 반환한다.
+     * */
+    public long purge(){
+        long started = System.currentTimeMillis();
+        long total = 0;
+        for (NotificationType type : NotificationType.values()) {
+            AppProperties.Retention retention = appProperties.getNotification().getRetention(type);
+            total += purge(type, NotificationStatus.READ, retention.getReadTtlMsec());
+            total += purge(type, NotificationStatus.NOT_READ, retention.getUnreadTtlMsec());
+        }
+        log.info("notification purge : {}건 삭제 ({} ms)", total, System.currentTimeMillis() - started);
+        return total;
+    }
+
+    private long purge(NotificationType type, NotificationStatus status, long ttlMsec){
+        if(ttlMsec <= 0) return 0;
+
+        LocalDateTime before = LocalDateTime.now().minusNanos(ttlMsec * 1_000_000);
+        int batchSize = appProperties.getNotification().getPurgeBatchSize();
+        long purged = 0;
+        while(true){
+            int deleted = notificationService.purgeExpiredBatch(type, status, before, batchSize);
+            purged += deleted;
+            if(deleted < batchSize) break;
+            if(!pause()) break;
+        }
+        if(purged > 0) log.info("notification purge : {} {} {}건", type, status, purged);
+        return purged;
+    }
+
+    private boolean pause(){
+        try {
+            Thread.sleep(appProperties.getNotification().getPurgePauseMsec());
+            return true;
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
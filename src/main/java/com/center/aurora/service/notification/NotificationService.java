@@ -1,121 +1,272 @@
 package com.center.aurora.service.notification;
 
+import com.center.aurora.config.AppProperties;
 import com.center.aurora.domain.notification.Notification;
 import com.center.aurora.domain.notification.NotificationStatus;
 import com.center.aurora.domain.notification.NotificationType;
 import com.center.aurora.domain.user.User;
-import com.center.aurora.domain.user.friend.Friend;
-import com.center.aurora.domain.user.friend.FriendId;
-import com.center.aurora.domain.user.friend.FriendStatus;
+import com.center.aurora.exception.BadRequestException;
 import com.center.aurora.exception.NotExistNotificationType;
+import com.center.aurora.exception.ResourceNotFoundException;
 import com.center.aurora.repository.NotificationRepository;
-import com.center.aurora.repository.user.FriendRepository;
 import com.center.aurora.repository.user.UserRepository;
 import com.center.aurora.service.notification.dto.*;
 import com.center.aurora.service.notification.dto.NotificationSendDto.*;
+import com.center.aurora.service.user.FriendshipStore;
+import com.center.aurora.utils.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class NotificationService {
 
+    public static final int MAX_PAGE_SIZE = 50;
+
+    private static final List<NotificationType> NORMAL_TYPES = List.of(NotificationType.POST, NotificationType.FRIEND_ACCEPT);
+
     private final UserRepository userRepository;
 
-    private final FriendRepository friendRepository;
+    private final FriendshipStore friendshipStore;
 
     private final NotificationRepository notificationRepository;
 
+    private final PostNotificationDebouncer postNotificationDebouncer;
+
+    private final AppProperties appProperties;
+
+    private final UnreadNotificationCounter unreadNotificationCounter;
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    @Transactional
+    public void saveNotification(NotificationRecvDto notificationRecvDto){
+        saveNotifications(Collections.singletonList(notificationRecvDto));
+    }
+
+    /**
+     * 알림 여러 건을 한 트랜잭션으로 저장한다. 보낸/받는 유저는 IN 쿼리 한번으로 읽고, 새 알림은 마지막에 모아서 저장한다.
+     * Notification id 는 시퀀스에서 미리 받아오므로 커밋할 때 insert 가 JDBC batch 로 나간다. (NotificationWriteQueue 가 사용)
+     * 새로 저장된 알림만 커밋된 뒤에 /sub/notification/{to} 로 보낸다. POST 알림은 PostNotificationDebouncer 가 모아서 보낸다.
+     * */
     @Transactional
-    public NotificationSendDto saveNotification(NotificationRecvDto notificationRecvDto){
-        User from = userRepository.findById(notificationRecvDto.getFrom()).get();
-        User to = userRepository.findById(notificationRecvDto.getTo()).get();
-
-        Notification notification = notificationRecvDto.toEntity(from, to);
-
-        NotificationSendDto ret;
-        switch (notification.getType()){
-            case POST:
-                ret = new PostNotificationDto(notificationRecvDto);
-                break;
-            case FRIEND_REQUEST:
-                Friend friend1 = Friend.builder().id(new FriendId(from.getId(), to.getId())).me(from).you(to).status(FriendStatus.ONGOING).build();
-                Friend friend2 = Friend.builder().id(new FriendId(to.getId(), from.getId())).me(to).you(from).status(FriendStatus.ONGOING).build();
-                friendRepository.save(friend1);
-                friendRepository.save(friend2);
-                ret = new FriendRequestNotificationDto(notificationRecvDto);
-                break;
-            case FRIEND_ACCEPT:
-                ret = new FriendAcceptNotificationDto(notificationRecvDto);
-                break;
-            case CHATTING:
-                ret = new ChatNotificationDto(notificationRecvDto);
-                break;
-            default:
-                log.error("잘못된 알림 타입 전달 받음");
-                throw new NotExistNotificationType("존재하지 않는 알림 타입입니다!!");
+    public void saveNotifications(List<NotificationRecvDto> notificationRecvDtos){
+        Set<Long> userIds = new HashSet<>();
+        for (NotificationRecvDto dto : notificationRecvDtos) {
+            userIds.add(dto.getFrom());
+            userIds.add(dto.getTo());
         }
-        notificationRepository.save(notification);
-        return ret;
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) users.put(user.getId(), user);
+
+        List<Notification> created = new ArrayList<>();
+        for (NotificationRecvDto dto : notificationRecvDtos) {
+            User from = users.get(dto.getFrom());
+            User to = users.get(dto.getTo());
+            if(from == null) throw new ResourceNotFoundException("User", "id", dto.getFrom());
+            if(to == null) throw new ResourceNotFoundException("User", "id", dto.getTo());
+
+            Notification notification = dto.toEntity(from, to);
+            switch (notification.getType()){
+                case POST:
+                    Notification aggregate = aggregatePostNotification(notification);
+                    postNotificationDebouncer.schedule(to.getId(), new PostNotificationDto(aggregate));
+                    continue;
+                case FRIEND_REQUEST:
+                    // 이미 요청 중이거나 친구면 관계도 알림도 새로 만들지 않는다.
+                    // 같은 요청 알림이 동시에 저장되면 한쪽이 dedupKey 유니크 키에 걸리고, 쓰기 큐가 한 건씩 다시 저장할 때 여기서 빠진다.
+                    if(!friendshipStore.requestIfAbsent(from.getId(), to.getId()) || isPending(notification)) continue;
+                    notification.openDedup();
+                    break;
+                case FRIEND_ACCEPT:
+                case CHATTING:
+                    break;
+                default:
+                    log.error("잘못된 알림 타입 전달 받음");
+                    throw new NotExistNotificationType("존재하지 않는 알림 타입입니다!!");
+            }
+            created.add(notification);
+            unreadNotificationCounter.increment(to.getId(), notification.getType());
+            push(to.getId(), NotificationSendDto.of(dto));
+        }
+        notificationRepository.saveAll(created);
     }
+
+    private void push(Long recipientId, NotificationSendDto notification){
+        TransactionUtils.afterCommit(() -> {
+            try {
+                messagingTemplate.convertAndSend("/sub/notification/" + recipientId, notification);
+            } catch (Exception ex){
+                log.error("알림 전송 실패 recipientId = " + recipientId, ex);
+            }
+        });
+    }
+
+    private boolean isPending(Notification notification){
+        return notificationRepository.existsByDedupKey(Notification.dedupKeyOf(notification.getWriter().getId(),
+                notification.getRecipient().getId(), notification.getType(), notification.getTargetId()));
+    }
+
     /**
-     * 읽지 않은 알림 종류 별로 개수 반환
+     * 같은 수신자, 같은 게시물에 대해 창 안에 읽지 않은 알림이 있으면 그 알림에 합치고 없으면 새로 저장한다.
+     * 모으는 중인 알림은 aggregateKey 유니크 키로 하나만 존재하고, 읽을 때 쓰기 락을 잡으므로 동시에 합쳐도 유실되지 않는다.
+     * 둘이 동시에 처음 저장하면 한쪽이 유니크 키에 걸려 실패하고, 쓰기 큐가 한 건씩 다시 저장할 때 먼저 저장된 알림에 합쳐진다.
+     * */
+    private Notification aggregatePostNotification(Notification notification){
+        LocalDateTime windowStart = LocalDateTime.now().minusNanos(appProperties.getNotification().getAggregateWindowMsec() * 1_000_000);
+        String key = Notification.aggregateKeyOf(notification.getRecipient().getId(), NotificationType.POST, notification.getTargetId());
+        Optional<Notification> open = notificationRepository.findByAggregateKey(key);
+
+        if(open.isPresent()){
+            Notification aggregate = open.get();
+            if(aggregate.getStatus() == NotificationStatus.NOT_READ
+                    && (aggregate.getCreatedAt() == null || aggregate.getCreatedAt().isAfter(windowStart))){
+                aggregate.aggregate(notification.getWriter(), notification.getMessage());
+                return aggregate;
+            }
+            aggregate.closeAggregate();
+            notificationRepository.flush(); // insert 가 update 보다 먼저 나가므로 키를 먼저 비운다.
+        }
+        notification.openAggregate();
+        unreadNotificationCounter.increment(notification.getRecipient().getId(), NotificationType.POST);
+        return notificationRepository.save(notification);
+    }
+    /**
+     * 읽지 않은 알림 종류 별로 개수 반환. 메모리 카운터에서 읽으므로 처음 한번 외에는 DB 를 읽지 않는다.
      * */
-    @Transactional(readOnly = true)
     public NotificationCountDto getAllNotificationCount(Long userId){
         Map<String, Long> ret = new HashMap<>();
-        for (NotificationType type : NotificationType.values()) {
-            Long cnt = notificationRepository.countByRecipientIdAndStatusAndType(userId, NotificationStatus.NOT_READ, type);
-            ret.put(type.name(), cnt);
-        }
+        unreadNotificationCounter.get(userId).forEach((type, cnt) -> ret.put(type.name(), cnt));
         return new NotificationCountDto(ret);
     }
     /**
-     * 특정  채팅방 읽지 않은 채팅 메시지 읽음 상태로 전부 변경
+     * 특정  채팅방 읽지 않은 채팅 메시지 읽음 상태로 전부 변경. 수신자마다 UPDATE 한번으로 처리하고 바뀐 행 수만큼 카운터를 줄인다.
      * */
     @Transactional
     public void updateAllChattingNotificationStatus(Long roomId){
-        List<Notification> notifications = notificationRepository.findAllByTargetIdAndTypeAndStatus(roomId, NotificationType.CHATTING, NotificationStatus.NOT_READ);
-        for (Notification notification : notifications) {
-            notification.read();
+        for (Long recipientId : notificationRepository.findRecipientIdsByTarget(roomId, NotificationType.CHATTING, NotificationStatus.NOT_READ)) {
+            int updated = notificationRepository.updateStatusByRecipientAndTarget(recipientId, roomId, NotificationType.CHATTING,
+                    NotificationStatus.NOT_READ, NotificationStatus.READ);
+            unreadNotificationCounter.decrement(recipientId, NotificationType.CHATTING, updated);
+        }
+    }
+
+    /**
+     * 내 알림 중 maxId 이하인 읽지 않은 알림을 종류마다 UPDATE 한번으로 읽음 처리하고 바뀐 개수를 반환한다.
+     * 카운터는 각 UPDATE 가 바꾼 행 수만큼 줄이므로 그 사이에 들어온 알림이 있어도 어긋나지 않는다.
+     * type 이 null 이면 모든 종류, maxId 가 null 이면 지금까지 온 알림 전부.
+     * */
+    @Transactional
+    public int updateAllNotificationStatus(Long userId, NotificationType type, Long maxId){
+        long upTo = (maxId == null)? Long.MAX_VALUE : maxId;
+        int updated = 0;
+        for (NotificationType unreadType : notificationRepository.findTypesByRecipient(userId, type, NotificationStatus.NOT_READ, upTo)) {
+            int count = notificationRepository.updateStatusByRecipient(userId, unreadType, NotificationStatus.NOT_READ, NotificationStatus.READ, upTo);
+            unreadNotificationCounter.decrement(userId, unreadType, count);
+            updated += count;
+        }
+        return updated;
+    }
+
+    /**
+     * before 이전에 생성된 (type, status) 알림을 최대 limit 개 지우고 지운 개수를 반환한다. 배치마다 별도 트랜잭션.
+     * 지울 행의 id 를 한번만 쓰기 락을 잡고 읽으므로 카운터에서 빼는 개수와 지우는 행이 같다.
+     * */
+    @Transactional
+    public int purgeExpiredBatch(NotificationType type, NotificationStatus status, LocalDateTime before, int limit){
+        List<Object[]> rows = notificationRepository.findExpiredBatchForUpdate(type.name(), status.name(), before, limit);
+        if(rows.isEmpty()) return 0;
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        Map<Long, Integer> unread = new HashMap<>();
+        for (Object[] row : rows) {
+            ids.add(((Number) row[0]).longValue());
+            unread.merge(((Number) row[1]).longValue(), 1, Integer::sum);
+        }
+        int deleted = notificationRepository.deleteAllByIdIn(ids);
+        if(status == NotificationStatus.NOT_READ){
+            unread.forEach((recipientId, count) -> unreadNotificationCounter.decrement(recipientId, type, count));
         }
+        return deleted;
     }
+
     /**
      * 특정 알림 읽음 상태로 변경
      * */
     @Transactional
     public void updateNotificationStatus(Long notificationId){
         Notification notification = notificationRepository.findById(notificationId).get();
-        notification.read();
+        markRead(notification);
+    }
+
+    private void markRead(Notification notification){
+        if(notification.read()) unreadNotificationCounter.decrement(notification.getRecipient().getId(), notification.getType(), 1);
     }
 
     /**
-     * 친구요청 알림 반환, 확인 안한 알림만 리턴
+     * 친구요청 알림 반환, 확인 안한 알림만 최신순으로 첫 페이지 (MAX_PAGE_SIZE 개) 만 리턴. 나머지는 getFriendRequestNotificationPage 로 읽는다.
      * */
     @Transactional(readOnly = true)
     public List<FriendRequestListDto> getAllFriendRequestNotification(Long userId){
-        List<Notification> res = notificationRepository.findAllByRecipientIdAndTypeAndStatus(userId, NotificationType.FRIEND_REQUEST, NotificationStatus.NOT_READ);
-        return res.stream()
-                .map(FriendRequestListDto::new)
-                .sorted((a,b) -> b.getTimeStamp().compareTo(a.getTimeStamp()))
-                .collect(Collectors.toList());
+        return getFriendRequestNotificationPage(userId, null, MAX_PAGE_SIZE).getNotifications();
     }
+
     /**
-     * 일반 알림 전부 조회
+     * 확인 안한 친구요청 알림을 최신순으로 size 개씩. cursor 는 이전 페이지의 nextCursor
+     * */
+    @Transactional(readOnly = true)
+    public NotificationPageDto<FriendRequestListDto> getFriendRequestNotificationPage(Long userId, Long cursor, int size){
+        checkPageSize(size);
+        List<FriendRequestListDto> rows = notificationRepository.findFriendRequestPage(userId, NotificationType.FRIEND_REQUEST,
+                NotificationStatus.NOT_READ, (cursor == null)? Long.MAX_VALUE : cursor, PageRequest.of(0, size + 1));
+        return toPage(rows, size, FriendRequestListDto::getId);
+    }
+
+    /**
+     * 일반 알림을 최신순으로 첫 페이지 (MAX_PAGE_SIZE 개) 만 조회. 나머지는 getNormalNotificationPage 로 읽는다.
      * */
     @Transactional(readOnly = true)
     public List<NotificationListDto> getAllNormalNotification(Long userId){
-        List<Notification> res = notificationRepository.findAllNormalNotification(userId);
-        return res.stream()
-                .map(NotificationListDto::new)
-                .sorted((a,b) -> b.getTimeStamp().compareTo(a.getTimeStamp()))
-                .collect(Collectors.toList());
+        return getNormalNotificationPage(userId, null, MAX_PAGE_SIZE).getNotifications();
+    }
+
+    /**
+     * 일반 알림을 최신순으로 size 개씩. 종류마다 (recipient, type, id) 인덱스에서 size + 1 개만 읽어 합친다.
+     * */
+    @Transactional(readOnly = true)
+    public NotificationPageDto<NotificationListDto> getNormalNotificationPage(Long userId, Long cursor, int size){
+        checkPageSize(size);
+        List<NotificationListDto> rows = findNormalNotifications(userId, (cursor == null)? Long.MAX_VALUE : cursor, PageRequest.of(0, size + 1));
+        return toPage(rows, size, NotificationListDto::getId);
     }
 
+    private List<NotificationListDto> findNormalNotifications(Long userId, Long cursor, Pageable pageable){
+        List<NotificationListDto> ret = new ArrayList<>();
+        for (NotificationType type : NORMAL_TYPES) {
+            ret.addAll(notificationRepository.findInboxPage(userId, type, cursor, pageable));
+        }
+        ret.sort(Comparator.comparing(NotificationListDto::getId).reversed());
+        return ret;
+    }
+
+    private static <T> NotificationPageDto<T> toPage(List<T> rows, int size, Function<T, Long> idOf){
+        if(rows.size() <= size) return new NotificationPageDto<>(rows, null);
+        List<T> page = new ArrayList<>(rows.subList(0, size));
+        return new NotificationPageDto<>(page, idOf.apply(page.get(size - 1)));
+    }
+
+    private static void checkPageSize(int size){
+        if(size < 1 || size > MAX_PAGE_SIZE)
+            throw new BadRequestException("size 는 1 ~ " + MAX_PAGE_SIZE + " 사이여야 합니다.");
+    }
 }
@@ -0,0 +1,73 @@
+package com.center.aurora.service.notification;
+
+import com.center.aurora.config.AppProperties;
+import com.center.aurora.service.notification.dto.NotificationRecvDto;
+import com.center.aurora.utils.BatchWriteQueue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * STOMP inbound 스레드가 DB 를 기다리지 않도록 받은 알림을 큐에 넣고, 작성 스레드가 writeBatchSize 개씩 한 트랜잭션으로 저장한다.
+ * 큐가 가득 차면 app.notification.write-overflow 정책에 따라 호출 스레드에서 쓰거나 버린다.
+ * */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class NotificationWriteQueue {
+
+    private final NotificationService notificationService;
+
+    private final AppProperties appProperties;
+
+    private BatchWriteQueue<NotificationRecvDto> queue;
+    private long reportedWritten = 0;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start(){
+        if(queue != null) return;
+        AppProperties.Notification config = appProperties.getNotification();
+        queue = new BatchWriteQueue<>("notification-writer", config.getWriteQueueCapacity(), config.getWriteBatchSize(),
+                config.getWriteOfferTimeoutMsec(), config.getWriteOverflow(), notificationService::saveNotifications);
+        queue.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop(){
+        if(queue != null) queue.stop();
+    }
+
+    /**
+     * 버려졌으면 false
+     * */
+    public boolean enqueue(NotificationRecvDto notificationRecvDto){
+        if(queue == null) start();
+        boolean accepted = queue.enqueue(notificationRecvDto);
+        if(!accepted) log.warn("알림 저장 큐가 가득 차서 버림 : {}", notificationRecvDto);
+        return accepted;
+    }
+
+    /**
+     * 지금까지 넣은 알림이 모두 저장될 때까지 기다린다.
+     * */
+    public boolean awaitEmpty(long timeoutMsec) throws InterruptedException {
+        return queue == null || queue.awaitEmpty(timeoutMsec);
+    }
+
+    @Scheduled(fixedDelay = 60 * 1000)
+    public synchronized void report(){
+        if(queue == null) return;
+        long written = queue.getWrittenCount();
+        if(written == reportedWritten && queue.getPendingCount() == 0) return;
+
+        log.info("notification write queue : 저장 {}건 (누적 {}), 대기 {}건, 실패 {}건, 호출 스레드 저장 {}건, 버림 {}건",
+                written - reportedWritten, written, queue.getPendingCount(), queue.getFailedCount(),
+                queue.getCallerRunsCount(), queue.getDroppedCount());
+        reportedWritten = written;
+    }
+}
@@ -0,0 +1,68 @@
+package com.center.aurora.service.notification;
+
+import com.center.aurora.config.AppProperties;
+import com.center.aurora.service.notification.dto.NotificationSendDto.PostNotificationDto;
+import com.center.aurora.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 합쳐진 POST 알림을 (수신자, 게시물) 단위로 모아서 창마다 한번만 /sub/notification/{to} 로 보낸다.
+ * 창 안에서 좋아요가 여러 번 들어와도 마지막 상태 한 건만 나간다.
+ * */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class PostNotificationDebouncer {
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    private final AppProperties appProperties;
+
+    private final Map<String, Pending> pendings = new ConcurrentHashMap<>();
+
+    public void schedule(Long recipientId, PostNotificationDto notification){
+        TransactionUtils.afterCommit(() ->
+                pendings.compute(recipientId + ":" + notification.getTargetId(), (key, prev) ->
+                        new Pending(recipientId, notification, (prev == null)? System.currentTimeMillis() : prev.firstSeen)));
+    }
+
+    @Scheduled(fixedDelay = 200)
+    public void flush(){
+        long now = System.currentTimeMillis();
+        long debounce = appProperties.getNotification().getPushDebounceMsec();
+
+        Iterator<Map.Entry<String, Pending>> it = pendings.entrySet().iterator();
+        while(it.hasNext()){
+            Map.Entry<String, Pending> entry = it.next();
+            Pending pending = entry.getValue();
+            if(now - pending.firstSeen < debounce) continue;
+            if(!pendings.remove(entry.getKey(), pending)) continue;
+
+            try {
+                messagingTemplate.convertAndSend("/sub/notification/" + pending.recipientId, pending.notification);
+            } catch (Exception ex){
+                log.error("알림 전송 실패 : " + entry.getKey(), ex);
+            }
+        }
+    }
+
+    private static class Pending {
+        private final Long recipientId;
+        private final PostNotificationDto notification;
+        private final long firstSeen;
+
+        private Pending(Long recipientId, PostNotificationDto notification, long firstSeen) {
+            this.recipientId = recipientId;
+            this.notification = notification;
+            this.firstSeen = firstSeen;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.center.aurora.service.notification;
+
+import com.center.aurora.domain.notification.NotificationType;
+import lombok.Getter;
+
+/**
+ * 유저의 읽지 않은 알림 수가 커밋된 뒤 delta 만큼 바뀌면 UnreadNotificationCounter 가 발행한다.
+ * */
+@Getter
+public class UnreadCountChangedEvent {
+
+    private final Long userId;
+    private final NotificationType type;
+    private final int delta;
+
+    public UnreadCountChangedEvent(Long userId, NotificationType type, int delta) {
+        this.userId = userId;
+        this.type = type;
+        this.delta = delta;
+    }
+}
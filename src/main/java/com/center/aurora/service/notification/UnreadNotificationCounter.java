@@ -0,0 +1,142 @@
+package com.center.aurora.service.notification;
+
+import com.center.aurora.domain.notification.NotificationStatus;
+import com.center.aurora.domain.notification.NotificationType;
+import com.center.aurora.repository.NotificationRepository;
+import com.center.aurora.utils.BoundedCache;
+import com.center.aurora.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 유저별 읽지 않은 알림 수를 NotificationType ordinal 로 인덱싱한 int 배열로 메모리에 들고 있는다.
+ * 처음 조회할 때 GROUP BY 쿼리 한번으로 채우고, 이후에는 알림 저장/읽음 처리가 커밋된 뒤 증감만 반영한다.
+ * 배열은 유저 id 로 나눈 스트라이프 락 안에서만 수정/복사한다. 어긋난 값은 reconcile 이 주기적으로 DB 값으로 맞춘다.
+ * 최대 MAX_USERS 명까지 LRU 로 들고 있고, reconcile 은 최근 ACTIVE_MSEC 안에 조회한 유저만 다시 읽고 나머지는 버린다.
+ * DB 를 읽는 동안 증감이 반영되면 읽은 값으로 덮어쓰지 않는다. (BoundedCache 버전)
+ * */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class UnreadNotificationCounter {
+
+    private static final int STRIPES = 64;
+    private static final int RECONCILE_BATCH_SIZE = 500;
+    private static final int MAX_USERS = 100_000;
+    private static final long ACTIVE_MSEC = 30 * 60 * 1000;
+    private static final NotificationType[] TYPES = NotificationType.values();
+
+    private final NotificationRepository notificationRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final BoundedCache<Long, Counts> counts = new BoundedCache<>(MAX_USERS);
+
+    private final Object[] locks = newLocks();
+
+    /**
+     * 종류별 읽지 않은 알림 수. 메모리에 없을 때만 DB 를 읽는다.
+     * */
+    public Map<NotificationType, Long> get(Long userId){
+        int[] snapshot;
+        Counts loaded = counts.get(userId);
+        if(loaded == null){
+            snapshot = load(List.of(userId)).get(userId);
+        }else{
+            loaded.accessedAt = System.currentTimeMillis();
+            synchronized (lockOf(userId)){
+                snapshot = loaded.unread.clone();
+            }
+        }
+
+        Map<NotificationType, Long> ret = new EnumMap<>(NotificationType.class);
+        for (NotificationType type : TYPES) ret.put(type, (long) snapshot[type.ordinal()]);
+        return ret;
+    }
+
+    public void increment(Long userId, NotificationType type){
+        add(userId, type, 1);
+    }
+
+    public void decrement(Long userId, NotificationType type, int count){
+        add(userId, type, -count);
+    }
+
+    /**
+     * 커밋된 뒤에 반영하고 UnreadCountChangedEvent 를 발행한다.
+     * 아직 메모리에 없는 유저는 나중에 DB 에서 읽을 때 반영되어 있으므로 건너뛴다.
+     * */
+    private void add(Long userId, NotificationType type, int delta){
+        if(delta == 0) return;
+        TransactionUtils.afterCommit(() -> {
+            Counts loaded = counts.markChanged(userId);
+            if(loaded != null){
+                synchronized (lockOf(userId)){
+                    loaded.unread[type.ordinal()] = Math.max(0, loaded.unread[type.ordinal()] + delta);
+                }
+            }
+            eventPublisher.publishEvent(new UnreadCountChangedEvent(userId, type, delta));
+        });
+    }
+
+    @Scheduled(fixedDelay = 5 * 60 * 1000)
+    public void reconcile(){
+        long activeSince = System.currentTimeMillis() - ACTIVE_MSEC;
+        int evicted = counts.removeIf((userId, loaded) -> loaded.accessedAt < activeSince);
+        List<Long> userIds = counts.keys();
+
+        for (int from = 0; from < userIds.size(); from += RECONCILE_BATCH_SIZE) {
+            load(userIds.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, userIds.size())));
+        }
+        if(!userIds.isEmpty() || evicted > 0)
+            log.info("unread notification counters reconciled : {} users, evicted : {} users", userIds.size(), evicted);
+    }
+
+    /**
+     * 주어진 유저들의 종류별 개수를 쿼리 한번으로 읽어 통째로 교체하고, 읽은 값을 반환한다.
+     * 읽는 동안 버전이 바뀐 유저는 메모리 값을 그대로 두고 다음 조회나 reconcile 때 다시 읽는다.
+     * */
+    private Map<Long, int[]> load(List<Long> userIds){
+        Map<Long, Long> before = new HashMap<>();
+        for (Long userId : userIds) before.put(userId, counts.version(userId));
+
+        Map<Long, int[]> loaded = new HashMap<>();
+        for (Long userId : userIds) loaded.put(userId, new int[TYPES.length]);
+        for (Object[] row : notificationRepository.countUnreadGroupByRecipientAndType(userIds, NotificationStatus.NOT_READ)) {
+            loaded.get((Long) row[0])[((NotificationType) row[1]).ordinal()] = ((Number) row[2]).intValue();
+        }
+
+        for (Map.Entry<Long, int[]> entry : loaded.entrySet()) {
+            Counts current = counts.get(entry.getKey());
+            long accessedAt = (current == null)? System.currentTimeMillis() : current.accessedAt;
+            counts.putIfUnchanged(entry.getKey(), new Counts(entry.getValue().clone(), accessedAt), before.get(entry.getKey()));
+        }
+        return loaded;
+    }
+
+    private Object lockOf(Long userId){
+        return locks[(int) (userId & (STRIPES - 1))];
+    }
+
+    private static Object[] newLocks(){
+        Object[] ret = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) ret[i] = new Object();
+        return ret;
+    }
+
+    private static class Counts {
+
+        private final int[] unread;
+        private volatile long accessedAt;
+
+        private Counts(int[] unread, long accessedAt) {
+            this.unread = unread;
+            this.accessedAt = accessedAt;
+        }
+    }
+}
@@ -2,7 +2,7 @@ package com.center.aurora.service.notification.dto;
 
 import com.center.aurora.domain.notification.Notification;
 import com.center.aurora.domain.notification.NotificationStatus;
-import com.center.aurora.domain.user.User;
+import com.center.aurora.service.user.dto.UserSummary;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
@@ -23,9 +23,21 @@ public class FriendRequestListDto {
 
     private Boolean isRead;
 
-    public FriendRequestListDto(Notification entity) {
+    /**
+     * NotificationRepository 의 인박스 페이지 쿼리에서 작성자와 함께 바로 만든다.
+     * */
+    public FriendRequestListDto(Long id, String message, LocalDateTime createdAt, NotificationStatus status,
+                                Long writerId, String writerName, String writerImage) {
+        this.id = id;
+        this.sender = (writerId == null)? null : new Usr(new UserSummary(writerId, writerName, writerImage));
+        this.message = message;
+        this.timeStamp = createdAt;
+        this.isRead = status == NotificationStatus.READ;
+    }
+
+    public FriendRequestListDto(Notification entity, UserSummary sender) {
         this.id = entity.getId();
-        this.sender = new Usr(entity.getWriter());
+        this.sender = (sender == null)? null : new Usr(sender);
         this.message = entity.getMessage();
         this.timeStamp = entity.getCreatedAt();
         this.isRead = entity.getStatus().name().equals(NotificationStatus.READ.name());
@@ -38,10 +50,10 @@ public class FriendRequestListDto {
         private String name;
         private String avatar;
 
-        public Usr(User user) {
+        public Usr(UserSummary user) {
             this.id = user.getId();
             this.name = user.getName();
-            this.avatar = user.getImage();
+            this.avatar = user.getAvatar();
         }
     }
 }
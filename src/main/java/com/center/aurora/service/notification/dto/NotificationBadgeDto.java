@@ -0,0 +1,40 @@
+package com.center.aurora.service.notification.dto;
+
+import com.center.aurora.domain.notification.NotificationType;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /sub/notification/{userId}/badge 로 나가는 프레임.
+ * sync 이면 counts 는 종류별 읽지 않은 알림 수 전체이고, 아니면 바뀐 종류의 증감(delta)만 담는다.
+ * */
+@Getter
+public class NotificationBadgeDto {
+
+    private final boolean sync;
+    private final Map<String, Long> counts;
+
+    private NotificationBadgeDto(boolean sync, Map<String, Long> counts) {
+        this.sync = sync;
+        this.counts = counts;
+    }
+
+    public static NotificationBadgeDto sync(Map<NotificationType, Long> unreadCounts){
+        Map<String, Long> counts = new LinkedHashMap<>();
+        unreadCounts.forEach((type, cnt) -> counts.put(type.name(), cnt));
+        return new NotificationBadgeDto(true, counts);
+    }
+
+    /**
+     * NotificationType ordinal 로 인덱싱한 증감. 모두 0 이면 보낼 것이 없으므로 null
+     * */
+    public static NotificationBadgeDto delta(int[] deltas){
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (NotificationType type : NotificationType.values()) {
+            if(deltas[type.ordinal()] != 0) counts.put(type.name(), (long) deltas[type.ordinal()]);
+        }
+        return counts.isEmpty()? null : new NotificationBadgeDto(false, counts);
+    }
+}
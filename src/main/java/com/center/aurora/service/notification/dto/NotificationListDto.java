@@ -2,11 +2,13 @@ package com.center.aurora.service.notification.dto;
 
 import com.center.aurora.domain.notification.Notification;
 import com.center.aurora.domain.notification.NotificationStatus;
-import com.center.aurora.domain.user.User;
+import com.center.aurora.domain.notification.NotificationType;
+import com.center.aurora.service.user.dto.UserSummary;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @NoArgsConstructor
 @Getter
@@ -19,15 +21,36 @@ public class NotificationListDto {
     private Long targetId;
     private LocalDateTime timeStamp;
     private Boolean isRead;
+    private int actorCount;
+    private List<Long> recentActorIds;
 
-    public NotificationListDto(Notification entity) {
+    /**
+     * NotificationRepository 의 인박스 페이지 쿼리에서 작성자와 함께 바로 만든다.
+     * */
+    public NotificationListDto(Long id, NotificationType type, String message, Long targetId, LocalDateTime createdAt,
+                               NotificationStatus status, int actorCount, String recentActorIds,
+                               Long writerId, String writerName, String writerImage) {
+        this.id = id;
+        this.type = type.name();
+        this.sender = (writerId == null)? null : new Usr(new UserSummary(writerId, writerName, writerImage));
+        this.message = message;
+        this.targetId = targetId;
+        this.timeStamp = createdAt;
+        this.isRead = status == NotificationStatus.READ;
+        this.actorCount = actorCount;
+        this.recentActorIds = Notification.parseActorIds(recentActorIds);
+    }
+
+    public NotificationListDto(Notification entity, UserSummary sender) {
         this.id = entity.getId();
         this.type = entity.getType().name();
-        this.sender = new Usr(entity.getWriter());
+        this.sender = (sender == null)? null : new Usr(sender);
         this.message = entity.getMessage();
         this.targetId = entity.getTargetId();
         this.timeStamp = entity.getCreatedAt();
         this.isRead = entity.getStatus().name().equals(NotificationStatus.READ.name());
+        this.actorCount = entity.getActorCount();
+        this.recentActorIds = entity.getRecentActors();
     }
 
     @NoArgsConstructor
@@ -37,10 +60,10 @@ public class NotificationListDto {
         private String name;
         private String avatar;
 
-        public Usr(User user) {
+        public Usr(UserSummary user) {
             this.id = user.getId();
             this.name = user.getName();
-            this.avatar = user.getImage();
+            this.avatar = user.getAvatar();
         }
     }
 
@@ -0,0 +1,23 @@
+package com.center.aurora.service.notification.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 최신순 알림 한 페이지. 다음 페이지는 nextCursor 를 cursor 로 넘겨 조회하고, 마지막 페이지면 nextCursor 가 null 이다.
+ * */
+@NoArgsConstructor
+@Getter
+public class NotificationPageDto<T> {
+
+    private List<T> notifications;
+
+    private Long nextCursor;
+
+    public NotificationPageDto(List<T> notifications, Long nextCursor) {
+        this.notifications = notifications;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -4,6 +4,7 @@ import com.center.aurora.domain.notification.Notification;
 import com.center.aurora.domain.notification.NotificationStatus;
 import com.center.aurora.domain.notification.NotificationType;
 import com.center.aurora.domain.user.User;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
@@ -16,6 +17,15 @@ public class NotificationRecvDto {
     private Long targetId; // postid 등 알람의 주체가되는 타겟의 아이디
     private String message;
 
+    @Builder
+    public NotificationRecvDto(String type, Long from, Long to, Long targetId, String message) {
+        this.type = type;
+        this.from = from;
+        this.to = to;
+        this.targetId = targetId;
+        this.message = message;
+    }
+
     public Notification toEntity(User from, User to) throws IllegalArgumentException{
         return Notification.builder()
                 .writer(from)
@@ -1,5 +1,8 @@
 package com.center.aurora.service.notification.dto.NotificationSendDto;
 
+import com.center.aurora.domain.notification.NotificationType;
+import com.center.aurora.exception.NotExistNotificationType;
+import com.center.aurora.service.notification.dto.NotificationRecvDto;
 import lombok.*;
 
 @ToString
@@ -13,4 +16,29 @@ public abstract class NotificationSendDto {
         this.type = type;
     }
 
+    /**
+     * 받은 알림으로 바로 보낼 DTO 를 만든다. DB 를 읽지 않는다.
+     * POST 알림은 PostNotificationDebouncer 가 합쳐서 보내므로 null
+     * */
+    public static NotificationSendDto of(NotificationRecvDto recvDto){
+        NotificationType type;
+        try {
+            type = NotificationType.valueOf(recvDto.getType());
+        } catch (IllegalArgumentException | NullPointerException ex){
+            throw new NotExistNotificationType("존재하지 않는 알림 타입입니다!!");
+        }
+        switch (type){
+            case POST:
+                return null;
+            case FRIEND_REQUEST:
+                return new FriendRequestNotificationDto(recvDto);
+            case FRIEND_ACCEPT:
+                return new FriendAcceptNotificationDto(recvDto);
+            case CHATTING:
+                return new ChatNotificationDto(recvDto);
+            default:
+                throw new NotExistNotificationType("존재하지 않는 알림 타입입니다!!");
+        }
+    }
+
 }
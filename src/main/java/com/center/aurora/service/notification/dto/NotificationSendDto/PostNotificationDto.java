@@ -1,11 +1,36 @@
 package com.center.aurora.service.notification.dto.NotificationSendDto;
 
+import com.center.aurora.domain.notification.Notification;
 import com.center.aurora.domain.notification.NotificationType;
 import com.center.aurora.service.notification.dto.NotificationRecvDto;
+import lombok.Getter;
 
+import java.util.List;
+
+@Getter
 public class PostNotificationDto extends NotificationSendDto{
 
+    private Long targetId;
+    private int actorCount;
+    private List<Long> recentActorIds;
+    private String message;
+
     public PostNotificationDto(NotificationRecvDto recvDto) {
         super(NotificationType.POST.name());
+        this.targetId = recvDto.getTargetId();
+        this.actorCount = 1;
+        this.recentActorIds = List.of(recvDto.getFrom());
+        this.message = recvDto.getMessage();
+    }
+
+    /**
+     * 합쳐진 알림 ("A님 외 12명이 좋아합니다")
+     * */
+    public PostNotificationDto(Notification aggregate) {
+        super(NotificationType.POST.name());
+        this.targetId = aggregate.getTargetId();
+        this.actorCount = aggregate.getActorCount();
+        this.recentActorIds = aggregate.getRecentActors();
+        this.message = aggregate.getMessage();
     }
 }
@@ -3,29 +3,57 @@ package com.center.aurora.service.post;
 import com.center.aurora.domain.post.Comment;
 import com.center.aurora.domain.post.Post;
 import com.center.aurora.domain.user.User;
+import com.center.aurora.exception.BadRequestException;
 import com.center.aurora.exception.UserAuthException;
+import com.center.aurora.repository.post.CommentReplyView;
 import com.center.aurora.repository.post.CommentRepository;
 import com.center.aurora.repository.post.PostRepository;
 import com.center.aurora.repository.user.UserRepository;
 import com.center.aurora.service.post.dto.CommentDto;
 
 import com.center.aurora.service.post.dto.CommentResponse;
+import com.center.aurora.service.post.dto.CommentThreadResponse;
 import com.center.aurora.service.post.dto.PostUserDto;
+import com.center.aurora.service.post.realtime.PostUpdateCoalescer;
+import com.center.aurora.service.user.UserSummaryCache;
+import com.center.aurora.service.user.dto.UserSummary;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CommentService {
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
     private final UserRepository userRepository;
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
+    private final PostUpdateCoalescer postUpdateCoalescer;
+    private final UserSummaryCache userSummaryCache;
+
+    /**
+     * path 가 없는 예전 댓글을 루트 path 로 채운다. 채우기 전에도 조회/답글/삭제는 path 가 null 인 경우를 따로 처리한다.
+     * 한 UPDATE 가 잡는 락이 커지지 않도록 BACKFILL_BATCH_SIZE 개씩 나눠 별도 트랜잭션으로 채운다.
+     * */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillPaths(){
+        long filled = 0;
+        while(true){
+            int updated = commentRepository.backfillRootPaths(BACKFILL_BATCH_SIZE);
+            filled += updated;
+            if(updated < BACKFILL_BATCH_SIZE) break;
+        }
+        if(filled > 0) log.info("comment path backfill : {} 개", filled);
+    }
 
     @Transactional
     public Map getComment(Long post_id){
@@ -34,18 +62,17 @@ public class CommentService {
 
         List<Comment> list = commentRepository.findByPostOrderByIdDesc(post);
         List<CommentResponse> comments = new ArrayList<>();
+        Map<Long, UserSummary> writers = userSummaryCache.getAll(writerIds(list));
 
         for(Comment comment : list){
-            PostUserDto postUserDto = PostUserDto.builder()
-                    .id(comment.getWriter().getId())
-                    .name(comment.getWriter().getName())
-                    .avatar(comment.getWriter().getImage())
-                    .build();
+            PostUserDto postUserDto = new PostUserDto(writers.get(comment.getWriter().getId()));
 
             CommentResponse commentResponse = CommentResponse.builder()
                     .id(comment.getId())
                     .auth(postUserDto)
                     .content(comment.getContent())
+                    .parentId(comment.getParentId())
+                    .depth(comment.getDepth())
                     .build();
             comments.add(commentResponse);
         }
@@ -57,16 +84,87 @@ public class CommentService {
         return result;
     }
 
+    /**
+     * 루트 댓글을 페이지 단위로 조회하고, 각 루트의 답글은 path 순서로 최대 replyLimit 개까지 한번에 가져온다.
+     * */
+    @Transactional
+    public List<CommentThreadResponse> getCommentThreads(Long post_id, Pageable pageable, int replyLimit){
+        List<Comment> roots = commentRepository.findRootsByPostId(post_id, pageable);
+        if(roots.isEmpty()) return new ArrayList<>();
+
+        // path 가 아직 채워지지 않은 예전 댓글은 답글이 없으므로 IN 목록에서 뺀다.
+        List<String> rootPaths = roots.stream().map(Comment::getPath).filter(Objects::nonNull).collect(Collectors.toList());
+
+        Map<String, List<CommentResponse>> repliesByRoot = new HashMap<>();
+        Map<String, Integer> replyCntByRoot = new HashMap<>();
+        if(replyLimit > 0 && !rootPaths.isEmpty()){
+            for(CommentReplyView reply : commentRepository.findFirstRepliesOfRoots(post_id, rootPaths, replyLimit)){
+                PostUserDto postUserDto = PostUserDto.builder()
+                        .id(reply.getWriterId())
+                        .name(reply.getWriterName())
+                        .avatar(reply.getWriterImage())
+                        .build();
+
+                repliesByRoot.computeIfAbsent(reply.getRootPath(), k -> new ArrayList<>())
+                        .add(CommentResponse.builder()
+                                .id(reply.getId())
+                                .auth(postUserDto)
+                                .content(reply.getContent())
+                                .parentId(reply.getParentId())
+                                .depth(reply.getDepth())
+                                .build());
+            }
+        }
+
+        if(!rootPaths.isEmpty()){
+            for(Object[] row : commentRepository.countRepliesOfRoots(post_id, rootPaths)){
+                replyCntByRoot.put((String) row[0], ((Number) row[1]).intValue());
+            }
+        }
+
+        List<CommentThreadResponse> threads = new ArrayList<>();
+        Map<Long, UserSummary> writers = userSummaryCache.getAll(writerIds(roots));
+        for(Comment root : roots){
+            PostUserDto postUserDto = new PostUserDto(writers.get(root.getWriter().getId()));
+
+            threads.add(CommentThreadResponse.builder()
+                    .id(root.getId())
+                    .auth(postUserDto)
+                    .content(root.getContent())
+                    .replyCnt(replyCntByRoot.getOrDefault(root.getPath(), 0))
+                    .replies(repliesByRoot.getOrDefault(root.getPath(), new ArrayList<>()))
+                    .build());
+        }
+        return threads;
+    }
+
     @Transactional
     public void createComment(Long user_id, Long post_id, CommentDto commentDto){
         User user = userRepository.findById(user_id).get();
         Post post = postRepository.findById(post_id).get();
+
+        Comment parent = null;
+        if(commentDto.getParentId() != null){
+            parent = commentRepository.findById(commentDto.getParentId())
+                    .orElseThrow(() -> new BadRequestException("존재하지 않는 댓글입니다."));
+            if(!parent.getPost().getId().equals(post.getId())){
+                throw new BadRequestException("다른 게시물의 댓글에는 답글을 달 수 없습니다.");
+            }
+            if(parent.getDepth() >= Comment.MAX_DEPTH){
+                throw new BadRequestException("더 이상 답글을 달 수 없습니다.");
+            }
+            if(parent.getPath() == null) parent.assignPath(null); // path 가 생기기 전의 댓글은 루트다.
+        }
+
         Comment comment = Comment.builder()
                 .writer(user)
                 .post(post)
                 .content(commentDto.getContent())
+                .parent(parent)
                 .build();
         commentRepository.save(comment);
+        comment.assignPath((parent == null)? null : parent.getPath());
+        postUpdateCoalescer.postChanged(post.getId());
     }
 
     @Transactional
@@ -83,10 +181,18 @@ public class CommentService {
     public void deleteComment(Long user_id, Long comment_id){
         Comment comment = commentRepository.findById(comment_id).get();
         if(comment.getWriter().getId() == user_id){
-            commentRepository.deleteById(comment_id);
+            if(comment.getPath() == null){
+                commentRepository.deleteById(comment_id);
+            }else{
+                commentRepository.deleteSubtreeByPath(comment.getPost().getId(), comment.getPath());
+            }
+            postUpdateCoalescer.postChanged(comment.getPost().getId());
         }else{
             throw new UserAuthException("유저 권한이 없습니다.");
         }
     }
 
+    private Set<Long> writerIds(List<Comment> comments){
+        return comments.stream().map(x -> x.getWriter().getId()).collect(Collectors.toSet());
+    }
 }
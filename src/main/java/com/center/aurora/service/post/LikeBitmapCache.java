@@ -0,0 +1,83 @@
+package com.center.aurora.service.post;
+
+import com.center.aurora.repository.post.LikeRepository;
+import com.center.aurora.utils.BoundedCache;
+import com.center.aurora.utils.RoaringBitmap;
+import com.center.aurora.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 유저별로 좋아요한 게시물 id 를 압축 비트맵으로 메모리에 들고 있는다.
+ * 처음 조회할 때 한번만 DB 에서 읽어오고, 이후에는 좋아요/취소 시점에 갱신한다.
+ * DB 에서 읽는 동안 커밋된 좋아요/취소가 있으면 읽은 비트맵은 캐시에 넣지 않는다. (BoundedCache 버전)
+ * */
+@RequiredArgsConstructor
+@Component
+public class LikeBitmapCache {
+
+    private static final int MAX_USERS = 10_000;
+
+    private final LikeRepository likeRepository;
+
+    private final BoundedCache<Long, RoaringBitmap> bitmaps = new BoundedCache<>(MAX_USERS);
+
+    public boolean isLiked(Long userId, Long postId){
+        if(userId == null) return false;
+        RoaringBitmap bitmap = load(userId);
+        synchronized (bitmap){
+            return bitmap.contains(postId);
+        }
+    }
+
+    public List<Long> filterLiked(Long userId, Collection<Long> postIds){
+        List<Long> ret = new ArrayList<>();
+        RoaringBitmap bitmap = load(userId);
+        synchronized (bitmap){
+            for (Long postId : postIds) {
+                if(postId != null && bitmap.contains(postId)) ret.add(postId);
+            }
+        }
+        return ret;
+    }
+
+    public byte[] serialize(Long userId){
+        RoaringBitmap bitmap = load(userId);
+        synchronized (bitmap){
+            return bitmap.serialize();
+        }
+    }
+
+    /**
+     * 트랜잭션이 커밋된 뒤에 캐시에 반영한다. 캐시에 없는 유저는 다음 조회 때 DB 에서 읽는다.
+     * */
+    public void likeChanged(Long userId, Long postId, boolean liked){
+        TransactionUtils.afterCommit(() -> apply(userId, postId, liked));
+    }
+
+    private void apply(Long userId, Long postId, boolean liked){
+        RoaringBitmap bitmap = bitmaps.markChanged(userId);
+        if(bitmap == null) return;
+        synchronized (bitmap){
+            if(liked) bitmap.add(postId);
+            else bitmap.remove(postId);
+        }
+    }
+
+    private RoaringBitmap load(Long userId){
+        RoaringBitmap bitmap = bitmaps.get(userId);
+        if(bitmap != null) return bitmap;
+        long version = bitmaps.version(userId);
+
+        RoaringBitmap loaded = new RoaringBitmap();
+        for (Long postId : likeRepository.findAllPostIdByWriterId(userId)) {
+            loaded.add(postId);
+        }
+        RoaringBitmap prev = bitmaps.get(userId);
+        if(prev != null) return prev;
+        bitmaps.putIfUnchanged(userId, loaded, version);
+        return loaded;
+    }
+}
@@ -1,44 +1,61 @@
 package com.center.aurora.service.post;
 
-import com.center.aurora.domain.post.like.Like;
-import com.center.aurora.domain.post.like.LikeId;
-import com.center.aurora.domain.post.Post;
-import com.center.aurora.domain.user.User;
-import com.center.aurora.exception.UserAuthException;
 import com.center.aurora.repository.post.LikeRepository;
-import com.center.aurora.repository.post.PostRepository;
-import com.center.aurora.repository.user.UserRepository;
+import com.center.aurora.service.post.dto.LikeToggleDto;
+import com.center.aurora.service.post.realtime.PostUpdateCoalescer;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class LikeService {
-    private final UserRepository userRepository;
-    private final PostRepository postRepository;
     private final LikeRepository likeRepository;
+    private final PostUpdateCoalescer postUpdateCoalescer;
+    private final LikeBitmapCache likeBitmapCache;
 
+    /**
+     * 이미 좋아요 한 게시물이면 아무 일도 일어나지 않는다. (중복 터치, 재시도에 안전)
+     * */
     @Transactional
     public void createLike(Long user_id, Long post_id){
-        User user = userRepository.findById(user_id).get();
-        Post post = postRepository.findById(post_id).get();
-        LikeId likeId = new LikeId(user.getId(), post.getId());
-        Like like = Like.builder().post(post).writer(user).id(likeId).build();
-        likeRepository.save(like);
+        if(likeRepository.insertIgnore(post_id, user_id) > 0){
+            postUpdateCoalescer.postChanged(post_id);
+            likeBitmapCache.likeChanged(user_id, post_id, true);
+        }
     }
 
     @Transactional
     public void deleteLike(Long user_id, Long post_id){
-        User user = userRepository.findById(user_id).get();
-        Post post = postRepository.findById(post_id).get();
-        Like like = likeRepository.findByPostAndWriter(post,user);
-        if(like != null){
-            likeRepository.delete(like);
-        }else{
-            throw new UserAuthException("유저 권한이 없습니다.");
+        if(likeRepository.deleteByPostIdAndUserId(post_id, user_id) > 0){
+            postUpdateCoalescer.postChanged(post_id);
+            likeBitmapCache.likeChanged(user_id, post_id, false);
+        }
+    }
+
+    /**
+     * 오프라인 클라이언트 동기화용. 같은 게시물이 여러 번 오면 마지막 상태만 반영한다.
+     * */
+    @Transactional
+    public void applyLikes(Long user_id, List<LikeToggleDto> toggles){
+        Map<Long, Boolean> last = new LinkedHashMap<>();
+        for (LikeToggleDto toggle : toggles) {
+            if(toggle.getPostId() != null) last.put(toggle.getPostId(), toggle.isLiked());
+        }
+
+        List<Long> likes = new ArrayList<>();
+        List<Long> unlikes = new ArrayList<>();
+        last.forEach((postId, liked) -> (liked ? likes : unlikes).add(postId));
+
+        for (Long postId : likeRepository.applyLikeBatch(user_id, likes, unlikes)) {
+            postUpdateCoalescer.postChanged(postId);
+            likeBitmapCache.likeChanged(user_id, postId, last.get(postId));
         }
     }
 }
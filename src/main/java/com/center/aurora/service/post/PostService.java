@@ -2,12 +2,15 @@ package com.center.aurora.service.post;
 
 import com.center.aurora.domain.post.Mood;
 import com.center.aurora.domain.user.User;
+import com.center.aurora.domain.user.friend.FriendStatus;
 import com.center.aurora.exception.UserAuthException;
 import com.center.aurora.repository.post.CommentRepository;
 import com.center.aurora.repository.post.LikeRepository;
 import com.center.aurora.repository.user.UserRepository;
 import com.center.aurora.service.post.dto.PostResponse;
 import com.center.aurora.service.post.dto.PostUserDto;
+import com.center.aurora.service.user.FriendService;
+import com.center.aurora.service.user.UserSummaryCache;
 import com.center.aurora.utils.S3Uploader;
 import com.center.aurora.domain.post.Image;
 import com.center.aurora.repository.post.ImageRepository;
@@ -25,6 +28,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,30 +42,53 @@ public class PostService {
     private final CommentRepository commentRepository;
     private final LikeRepository likeRepository;
     private final S3Uploader s3Uploader;
+    private final LikeBitmapCache likeBitmapCache;
+    private final UserSummaryCache userSummaryCache;
+    private final FriendService friendService;
 
     @Transactional
     public List<PostResponse> getAllPost(Pageable pageable) {
+        return getAllPost(pageable, null);
+    }
+
+    @Transactional
+    public List<PostResponse> getAllPost(Pageable pageable, Long viewerId) {
         Page<Post> list = postRepository.findAll(pageable);
-        return fetchPosts(list);
+        return fetchPosts(list, viewerId);
     }
 
     @Transactional
     public PostResponse getOnePost(Long post_id) {
+        return getOnePost(post_id, null);
+    }
+
+    @Transactional
+    public PostResponse getOnePost(Long post_id, Long viewerId) {
         Post post = postRepository.findById(post_id).get();
         List<String> images = imageRepository.findAllImageByPostId(post);
 
-        return fetchPost(post, images);
+        return fetchPost(post, images, viewerId);
     }
 
     @Transactional
     public List<PostResponse> getPost(Long user_id, Pageable pageable) {
+        return getPost(user_id, pageable, null);
+    }
+
+    @Transactional
+    public List<PostResponse> getPost(Long user_id, Pageable pageable, Long viewerId) {
         User user = userRepository.findById(user_id).get();
         Page<Post> list = postRepository.findAllByWriter(pageable,user);
-        return fetchPosts(list);
+        return fetchPosts(list, viewerId);
     }
 
     @Transactional
     public List<PostResponse> getAllPostByMood(Pageable pageable, List<Mood> mood){
+        return getAllPostByMood(pageable, mood, null);
+    }
+
+    @Transactional
+    public List<PostResponse> getAllPostByMood(Pageable pageable, List<Mood> mood, Long viewerId){
         Page<Post> posts = postRepository.findAll(pageable);
         List<Post> list = new ArrayList<>();
         for(Mood moodValue : mood){
@@ -69,11 +97,16 @@ public class PostService {
             }
         }
 
-        return fetchOrderedPosts(list);
+        return fetchOrderedPosts(list, viewerId);
     }
 
     @Transactional
     public List<PostResponse> getPostByUserAndMood(Long user_id, Pageable pageable, List<Mood> mood){
+        return getPostByUserAndMood(user_id, pageable, mood, null);
+    }
+
+    @Transactional
+    public List<PostResponse> getPostByUserAndMood(Long user_id, Pageable pageable, List<Mood> mood, Long viewerId){
         User user = userRepository.findById(user_id).get();
         Page<Post> posts = postRepository.findAll(pageable);
         List<Post> list = new ArrayList<>();
@@ -83,7 +116,7 @@ public class PostService {
             }
         }
 
-        return fetchOrderedPosts(list);
+        return fetchOrderedPosts(list, viewerId);
     }
 
     @Transactional
@@ -168,34 +201,37 @@ public class PostService {
         }
     }
 
-    public List<PostResponse> fetchOrderedPosts(List<Post> list){
+    public List<PostResponse> fetchOrderedPosts(List<Post> list, Long viewerId){
         List<Post> postList = list.stream().sorted(Comparator.comparing(Post::getId).reversed()).collect(Collectors.toList());
         List<PostResponse> postResponseList = new ArrayList<>();
+        Map<Long, FriendStatus> writerStatuses = prefetchWriters(postList, viewerId);
 
         for (Post post : postList){
             List<String> images = imageRepository.findAllImageByPostId(post);
-            postResponseList.add(fetchPost(post,images));
+            postResponseList.add(fetchPost(post,images,viewerId,writerStatuses.get(post.getWriter().getId())));
         }
         return postResponseList;
     }
 
 
-    public List<PostResponse> fetchPosts(Page<Post> list){
+    public List<PostResponse> fetchPosts(Page<Post> list, Long viewerId){
         List<PostResponse> posts = new ArrayList<>();
+        Map<Long, FriendStatus> writerStatuses = prefetchWriters(list.getContent(), viewerId);
 
         for (Post post : list.getContent()){
             List<String> images = imageRepository.findAllImageByPostId(post);
-            posts.add(fetchPost(post,images));
+            posts.add(fetchPost(post,images,viewerId,writerStatuses.get(post.getWriter().getId())));
         }
 
         return posts;
     }
-    public PostResponse fetchPost(Post post, List<String> images){
-        PostUserDto PostUser = PostUserDto.builder()
-                .id(post.getWriter().getId())
-                .name(post.getWriter().getName())
-                .avatar(post.getWriter().getImage())
-                .build();
+    public PostResponse fetchPost(Post post, List<String> images, Long viewerId){
+        Long writerId = post.getWriter().getId();
+        return fetchPost(post, images, viewerId, friendService.getFriendStatuses(viewerId, List.of(writerId)).get(writerId));
+    }
+
+    public PostResponse fetchPost(Post post, List<String> images, Long viewerId, FriendStatus writerStatus){
+        PostUserDto PostUser = new PostUserDto(userSummaryCache.get(post.getWriter().getId()), writerStatus.name());
 
         int commentCnt = commentRepository.findByPostOrderByIdDesc(post).size();
         int likeCnt = likeRepository.findAllByPost(post);
@@ -207,8 +243,18 @@ public class PostService {
                 .images(images)
                 .commentCnt(commentCnt)
                 .likeCnt(likeCnt)
+                .likedByMe(likeBitmapCache.isLiked(viewerId, post.getId()))
                 .build();
 
         return postResponse;
     }
+
+    /**
+     * 작성자 요약 정보 중 캐시에 없는 것들을 IN 쿼리 한번으로 채워두고, 보는 사람과 작성자들의 친구 상태를 한번에 조회한다.
+     * */
+    private Map<Long, FriendStatus> prefetchWriters(List<Post> posts, Long viewerId){
+        Set<Long> writerIds = posts.stream().map(x -> x.getWriter().getId()).collect(Collectors.toSet());
+        userSummaryCache.getAll(writerIds);
+        return friendService.getFriendStatuses(viewerId, writerIds);
+    }
 }
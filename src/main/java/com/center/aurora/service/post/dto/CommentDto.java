@@ -6,9 +6,15 @@ import lombok.*;
 @NoArgsConstructor
 public class CommentDto {
     private String content;
+    private Long parentId;
 
-    @Builder
     public CommentDto(String content){
         this.content = content;
     }
+
+    @Builder
+    public CommentDto(String content, Long parentId){
+        this.content = content;
+        this.parentId = parentId;
+    }
 }
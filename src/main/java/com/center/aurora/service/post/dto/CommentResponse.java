@@ -9,11 +9,15 @@ public class CommentResponse {
     private Long id;
     private PostUserDto auth;
     private String content;
+    private Long parentId;
+    private int depth;
 
     @Builder
-    public CommentResponse(Long id, PostUserDto auth, String content) {
+    public CommentResponse(Long id, PostUserDto auth, String content, Long parentId, int depth) {
         this.id = id;
         this.auth = auth;
         this.content = content;
+        this.parentId = parentId;
+        this.depth = depth;
     }
 }
@@ -0,0 +1,24 @@
+package com.center.aurora.service.post.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class CommentThreadResponse {
+    private Long id;
+    private PostUserDto auth;
+    private String content;
+    private int replyCnt;
+    private List<CommentResponse> replies;
+
+    @Builder
+    public CommentThreadResponse(Long id, PostUserDto auth, String content, int replyCnt, List<CommentResponse> replies) {
+        this.id = id;
+        this.auth = auth;
+        this.content = content;
+        this.replyCnt = replyCnt;
+        this.replies = replies;
+    }
+}
@@ -0,0 +1,18 @@
+package com.center.aurora.service.post.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+public class LikeToggleDto {
+    private Long postId;
+    private boolean liked;
+
+    @Builder
+    public LikeToggleDto(Long postId, boolean liked) {
+        this.postId = postId;
+        this.liked = liked;
+    }
+}
@@ -16,9 +16,10 @@ public class PostResponse {
     private List<String> images;
     private int commentCnt;
     private int likeCnt;
+    private boolean likedByMe;
 
     @Builder
-    public PostResponse(Long id, PostUserDto getAllPostUser, Mood mood, String content, List<String> images, int commentCnt, int likeCnt) {
+    public PostResponse(Long id, PostUserDto getAllPostUser, Mood mood, String content, List<String> images, int commentCnt, int likeCnt, boolean likedByMe) {
         this.id = id;
         this.auth = getAllPostUser;
         this.mood = mood;
@@ -26,5 +27,6 @@ public class PostResponse {
         this.images = images;
         this.commentCnt = commentCnt;
         this.likeCnt = likeCnt;
+        this.likedByMe = likedByMe;
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.center.aurora.service.post.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+public class PostUpdateDto {
+    private Long postId;
+    private int likeCnt;
+    private int commentCnt;
+
+    @Builder
+    public PostUpdateDto(Long postId, int likeCnt, int commentCnt) {
+        this.postId = postId;
+        this.likeCnt = likeCnt;
+        this.commentCnt = commentCnt;
+    }
+}
@@ -1,5 +1,6 @@
 package com.center.aurora.service.post.dto;
 
+import com.center.aurora.service.user.dto.UserSummary;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -8,11 +9,22 @@ public class PostUserDto {
     private Long id;
     private String name;
     private String avatar;
+    /** 보는 사람과 작성자의 친구 상태. 게시글 작성자에만 채운다 * */
+    private String status;
 
     @Builder
-    public PostUserDto(Long id, String name, String avatar) {
+    public PostUserDto(Long id, String name, String avatar, String status) {
         this.id = id;
         this.name = name;
         this.avatar = avatar;
+        this.status = status;
+    }
+
+    public PostUserDto(UserSummary user) {
+        this(user, null);
+    }
+
+    public PostUserDto(UserSummary user, String status) {
+        this(user.getId(), user.getName(), user.getAvatar(), status);
     }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.center.aurora.service.post.realtime;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * /sub/post/{postId} 구독자 수를 게시물별로 관리한다.
+ * 아무도 보고 있지 않은 게시물은 PostUpdateCoalescer 가 프레임을 보내지 않는다.
+ * */
+@Slf4j
+@Component
+public class PostSubscriptionRegistry {
+
+    public static final String POST_TOPIC_PREFIX = "/sub/post/";
+
+    private final Map<Long, AtomicInteger> subscribers = new ConcurrentHashMap<>();
+
+    // sessionId -> (subscriptionId -> postId)
+    private final Map<String, Map<String, Long>> sessions = new ConcurrentHashMap<>();
+
+    public boolean isWatched(Long postId){
+        AtomicInteger cnt = subscribers.get(postId);
+        return cnt != null && cnt.get() > 0;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event){
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Long postId = parsePostId(accessor.getDestination());
+        if(postId == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) return;
+
+        Long prev = sessions.computeIfAbsent(accessor.getSessionId(), k -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), postId);
+        if(prev == null){
+            subscribers.computeIfAbsent(postId, k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event){
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, Long> subscriptions = sessions.get(accessor.getSessionId());
+        if(subscriptions == null || accessor.getSubscriptionId() == null) return;
+
+        Long postId = subscriptions.remove(accessor.getSubscriptionId());
+        if(postId != null) release(postId);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event){
+        Map<String, Long> subscriptions = sessions.remove(event.getSessionId());
+        if(subscriptions == null) return;
+
+        subscriptions.values().forEach(this::release);
+    }
+
+    private void release(Long postId){
+        subscribers.computeIfPresent(postId, (k, cnt) -> (cnt.decrementAndGet() <= 0)? null : cnt);
+    }
+
+    private Long parsePostId(String destination){
+        if(destination == null || !destination.startsWith(POST_TOPIC_PREFIX)) return null;
+        try {
+            return Long.parseLong(destination.substring(POST_TOPIC_PREFIX.length()));
+        } catch (NumberFormatException ex){
+            log.warn("잘못된 게시물 구독 경로 : " + destination);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.center.aurora.service.post.realtime;
+
+import com.center.aurora.config.AppProperties;
+import com.center.aurora.repository.post.PostRepository;
+import com.center.aurora.service.post.dto.PostUpdateDto;
+import com.center.aurora.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 좋아요/댓글 변경을 게시물 단위로 모았다가 250ms 마다 현재 개수를 한 프레임으로 /sub/post/{postId} 에 보낸다.
+ * 같은 창 안에서 좋아요가 500번 눌려도 게시물당 프레임은 하나만 나간다. 개수는 창마다 바뀐 게시물 전체에 대해 쿼리 한번으로 읽는다.
+ * */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class PostUpdateCoalescer {
+
+    public static final long WINDOW_MSEC = 250;
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    private final PostSubscriptionRegistry subscriptionRegistry;
+
+    private final PostRepository postRepository;
+
+    private final AppProperties appProperties;
+
+    private final Set<Long> dirtyPosts = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 트랜잭션 안에서 호출되면 커밋 이후에 반영해서 커밋 전 개수를 읽지 않도록 한다.
+     * */
+    public void postChanged(Long postId){
+        if(appProperties.getRealtime().isPublishOnlyWatched() && !subscriptionRegistry.isWatched(postId)) return;
+
+        TransactionUtils.afterCommit(() -> dirtyPosts.add(postId));
+    }
+
+    @Scheduled(fixedDelay = WINDOW_MSEC)
+    public void flush(){
+        if(dirtyPosts.isEmpty()) return;
+
+        List<Long> postIds = new ArrayList<>(dirtyPosts);
+        dirtyPosts.removeAll(postIds);
+
+        List<Object[]> rows;
+        try {
+            rows = postRepository.findCountsByIdIn(postIds);
+        } catch (Exception ex){
+            log.error("게시물 개수 조회 실패 postIds = " + postIds, ex);
+            return;
+        }
+
+        for (Object[] row : rows) {
+            Long postId = (Long) row[0];
+            try {
+                PostUpdateDto update = PostUpdateDto.builder()
+                        .postId(postId)
+                        .likeCnt(((Number) row[1]).intValue())
+                        .commentCnt(((Number) row[2]).intValue())
+                        .build();
+                messagingTemplate.convertAndSend(PostSubscriptionRegistry.POST_TOPIC_PREFIX + postId, update);
+            } catch (Exception ex){
+                log.error("게시물 업데이트 전송 실패 postId = " + postId, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.center.aurora.service.user;
+
+import com.center.aurora.domain.user.friend.FriendChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * FRIEND 상태 친구 관계를 유저별 정렬된 long 배열(친구 id)로 메모리에 들고 있는 그래프.
+ * 배열은 바뀔 때마다 새로 만들어 교체하므로 읽는 쪽은 락 없이 그대로 사용해도 된다.
+ * 10만 유저 / 500만 관계 기준 친구 id 배열만 약 40MB.
+ * */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class FriendGraph {
+
+    public static final long[] EMPTY = new long[0];
+
+    private final FriendshipStore friendshipStore;
+
+    private volatile Map<Long, long[]> adjacency = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+    /** 워밍업 도중 들어온 변경. lock 으로 보호 * */
+    private final List<FriendChangedEvent> pending = new ArrayList<>();
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp(){
+        Thread thread = new Thread(this::rebuild, "friend-graph-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void rebuild(){
+        synchronized (lock){
+            ready = false;
+        }
+        AdjacencyBuilder builder = new AdjacencyBuilder();
+        friendshipStore.forEachFriendship(builder);
+        Map<Long, long[]> loaded = builder.build();
+
+        synchronized (lock){
+            adjacency = new ConcurrentHashMap<>(loaded);
+            pending.forEach(this::apply);
+            pending.clear();
+            ready = true;
+        }
+        log.info("friend graph ready : {} users", loaded.size());
+    }
+
+    public boolean isReady(){
+        return ready;
+    }
+
+    /**
+     * 친구 id 를 오름차순으로 담은 배열. 수정하면 안 된다.
+     * */
+    public long[] friendsOf(Long userId){
+        if(userId == null) return EMPTY;
+        long[] friends = adjacency.get(userId);
+        return (friends == null)? EMPTY : friends;
+    }
+
+    public boolean areFriends(Long userId, Long targetId){
+        return Arrays.binarySearch(friendsOf(userId), targetId) >= 0;
+    }
+
+    public int mutualCount(Long userId, Long targetId){
+        return intersectionCount(friendsOf(userId), friendsOf(targetId));
+    }
+
+    public long[] mutualFriends(Long userId, Long targetId){
+        return intersection(friendsOf(userId), friendsOf(targetId));
+    }
+
+    @Order(0)
+    @EventListener
+    public void onFriendChanged(FriendChangedEvent event){
+        synchronized (lock){
+            if(!ready){
+                pending.add(event);
+                return;
+            }
+            apply(event);
+        }
+    }
+
+    private void apply(FriendChangedEvent event){
+        long[] before = friendsOf(event.getMe());
+        int idx = Arrays.binarySearch(before, event.getYou());
+        if(event.isFriend() && idx < 0){
+            idx = -idx - 1;
+            long[] after = new long[before.length + 1];
+            System.arraycopy(before, 0, after, 0, idx);
+            after[idx] = event.getYou();
+            System.arraycopy(before, idx, after, idx + 1, before.length - idx);
+            adjacency.put(event.getMe(), after);
+        }else if(!event.isFriend() && idx >= 0){
+            if(before.length == 1){
+                adjacency.remove(event.getMe());
+                return;
+            }
+            long[] after = new long[before.length - 1];
+            System.arraycopy(before, 0, after, 0, idx);
+            System.arraycopy(before, idx + 1, after, idx, before.length - idx - 1);
+            adjacency.put(event.getMe(), after);
+        }
+    }
+
+    /**
+     * 두 정렬된 배열의 교집합 크기. 크기 차이가 크면 작은 쪽 원소를 큰 쪽에서 이진 탐색한다.
+     * */
+    static int intersectionCount(long[] a, long[] b){
+        if(a.length > b.length) return intersectionCount(b, a);
+        if(a.length == 0) return 0;
+
+        int ret = 0;
+        if((long) a.length * (64 - Long.numberOfLeadingZeros(b.length)) < a.length + b.length){
+            for (long x : a) if(Arrays.binarySearch(b, x) >= 0) ret++;
+            return ret;
+        }
+        int i = 0, j = 0;
+        while(i < a.length && j < b.length){
+            if(a[i] < b[j]) i++;
+            else if(a[i] > b[j]) j++;
+            else { ret++; i++; j++; }
+        }
+        return ret;
+    }
+
+    static long[] intersection(long[] a, long[] b){
+        long[] ret = new long[Math.min(a.length, b.length)];
+        int size = 0, i = 0, j = 0;
+        while(i < a.length && j < b.length){
+            if(a[i] < b[j]) i++;
+            else if(a[i] > b[j]) j++;
+            else { ret[size++] = a[i]; i++; j++; }
+        }
+        return Arrays.copyOf(ret, size);
+    }
+
+    /**
+     * user_id, friend_id 순으로 정렬되어 들어오는 관계를 유저별 배열로 모은다.
+     * */
+    private static final class AdjacencyBuilder implements BiConsumer<Long, Long> {
+        private final Map<Long, long[]> ret = new HashMap<>();
+        private long[] buffer = new long[16];
+        private int size = 0;
+        private Long current = null;
+
+        @Override
+        public void accept(Long me, Long you) {
+            if(!me.equals(current)) flush(me);
+            if(size == buffer.length) buffer = Arrays.copyOf(buffer, size * 2);
+            buffer[size++] = you;
+        }
+
+        Map<Long, long[]> build(){
+            flush(null);
+            return ret;
+        }
+
+        private void flush(Long next){
+            if(size > 0) ret.put(current, Arrays.copyOf(buffer, size));
+            current = next;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.center.aurora.service.user;
+
+import com.center.aurora.config.AppProperties;
+import com.center.aurora.domain.user.friend.FriendPair;
+import com.center.aurora.domain.user.friend.FriendPairId;
+import com.center.aurora.repository.user.FriendPairRepository;
+import com.center.aurora.repository.user.FriendRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * friend 테이블의 방향별 두 행을 합쳐 friend_pair 한 행으로 옮긴다.
+ * 행을 흘려보내면서 BATCH_SIZE 쌍씩 insert ignore 하므로 메모리는 일정하고, 서비스를 멈추지 않고 여러 번 돌려도 된다.
+ * DUAL 모드에서는 새 변경이 friend_pair 에도 바로 쓰이므로, 이미 있는 쌍은 더 최신 값으로 보고 덮어쓰지 않는다.
+ * 읽은 뒤 넣기 전에 friend 에서 지워지거나 바뀐 관계는 넣을 때 다시 확인해서 건너뛴다. (다음 실행에서 새 값으로 옮겨진다)
+ * */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class FriendPairMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final FriendRepository friendRepository;
+
+    private final FriendPairRepository friendPairRepository;
+
+    private final AppProperties appProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup(){
+        if(appProperties.getFriendship().getStorage() != AppProperties.Friendship.Storage.DUAL) return;
+
+        Thread thread = new Thread(this::migrate, "friend-pair-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 새로 옮긴 쌍 수를 반환한다.
+     * */
+    public int migrate(){
+        List<FriendPair> batch = new ArrayList<>(BATCH_SIZE);
+        int[] counts = new int[2];
+        friendRepository.forEachMergedPair((lowId, highId, lowToHigh, highToLow) -> {
+            batch.add(new FriendPair(new FriendPairId(lowId, highId), FriendPair.encode(lowToHigh, highToLow)));
+            counts[0]++;
+            if(batch.size() == BATCH_SIZE){
+                counts[1] += friendPairRepository.insertIfMatchesFriend(batch);
+                batch.clear();
+            }
+        });
+        counts[1] += friendPairRepository.insertIfMatchesFriend(batch);
+
+        log.info("friend_pair migration : {} 쌍 중 {} 쌍 이관", counts[0], counts[1]);
+        return counts[1];
+    }
+}
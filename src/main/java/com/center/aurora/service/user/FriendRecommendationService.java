@@ -0,0 +1,134 @@
+package com.center.aurora.service.user;
+
+import com.center.aurora.domain.user.friend.FriendChangedEvent;
+import com.center.aurora.service.user.dto.FriendRecommendationDto;
+import com.center.aurora.service.user.dto.UserSummary;
+import com.center.aurora.utils.BoundedCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * 알 수도 있는 사람 추천. 친구의 친구(2-hop) 중 나와 친구가 아닌 유저를 함께 아는 친구 수 순으로 추천한다.
+ * 친구들의 정렬된 친구 배열을 k-way 병합하면 같은 id 가 연속해서 나오므로, 그 개수가 곧 함께 아는 친구 수이다.
+ * 결과는 유저별로 캐시하고, 관계가 바뀌면 영향을 받는 유저(양쪽 당사자와 그 친구들)의 결과만 지운다.
+ * 계산하는 동안 지워졌으면 계산한 결과는 넣지 않는다. (BoundedCache 버전)
+ * */
+@RequiredArgsConstructor
+@Service
+public class FriendRecommendationService {
+
+    public static final int MAX_RECOMMENDATIONS = 50;
+    private static final int MAX_CACHED_USERS = 10_000;
+
+    private final FriendGraph friendGraph;
+
+    private final UserSummaryCache userSummaryCache;
+
+    private final BoundedCache<Long, Recommendation> cache = new BoundedCache<>(MAX_CACHED_USERS);
+
+    public List<FriendRecommendationDto> recommend(Long userId, int size){
+        Recommendation recommendation = cache.get(userId);
+        if(recommendation == null){
+            if(!friendGraph.isReady()) return new ArrayList<>();
+            long version = cache.version(userId);
+            recommendation = compute(userId);
+            cache.putIfUnchanged(userId, recommendation, version);
+        }
+
+        int count = Math.min(size, recommendation.ids.length);
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) ids.add(recommendation.ids[i]);
+
+        Map<Long, UserSummary> users = userSummaryCache.getAll(ids);
+        List<FriendRecommendationDto> ret = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UserSummary user = users.get(recommendation.ids[i]);
+            if(user != null) ret.add(new FriendRecommendationDto(user, recommendation.mutualCounts[i]));
+        }
+        return ret;
+    }
+
+    @Order(1)
+    @EventListener
+    public void onFriendChanged(FriendChangedEvent event){
+        invalidateAround(event.getMe());
+        invalidateAround(event.getYou());
+    }
+
+    private void invalidateAround(Long userId){
+        cache.invalidate(userId);
+        for (long friendId : friendGraph.friendsOf(userId)) cache.invalidate(friendId);
+    }
+
+    Recommendation compute(Long userId){
+        long[] myFriends = friendGraph.friendsOf(userId);
+
+        PriorityQueue<Cursor> merge = new PriorityQueue<>(Math.max(1, myFriends.length));
+        for (long friendId : myFriends) {
+            long[] friends = friendGraph.friendsOf(friendId);
+            if(friends.length > 0) merge.add(new Cursor(friends));
+        }
+
+        // 함께 아는 친구 수가 적은 것부터 꺼내지는 크기 MAX_RECOMMENDATIONS 의 힙 (같으면 id 가 큰 것부터)
+        PriorityQueue<long[]> top = new PriorityQueue<>((a, b) -> a[1] != b[1] ? Long.compare(a[1], b[1]) : Long.compare(b[0], a[0]));
+        while(!merge.isEmpty()){
+            long candidate = merge.peek().value();
+            int mutual = 0;
+            while(!merge.isEmpty() && merge.peek().value() == candidate){
+                Cursor cursor = merge.poll();
+                mutual++;
+                if(cursor.next()) merge.add(cursor);
+            }
+            if(candidate == userId || Arrays.binarySearch(myFriends, candidate) >= 0) continue;
+
+            top.add(new long[]{candidate, mutual});
+            if(top.size() > MAX_RECOMMENDATIONS) top.poll();
+        }
+
+        int n = top.size();
+        long[] ids = new long[n];
+        int[] mutualCounts = new int[n];
+        for (int i = n - 1; i >= 0; i--) {
+            long[] entry = top.poll();
+            ids[i] = entry[0];
+            mutualCounts[i] = (int) entry[1];
+        }
+        return new Recommendation(ids, mutualCounts);
+    }
+
+    static final class Recommendation {
+        final long[] ids;
+        final int[] mutualCounts;
+
+        Recommendation(long[] ids, int[] mutualCounts) {
+            this.ids = ids;
+            this.mutualCounts = mutualCounts;
+        }
+    }
+
+    private static final class Cursor implements Comparable<Cursor> {
+        private final long[] values;
+        private int pos = 0;
+
+        Cursor(long[] values) {
+            this.values = values;
+        }
+
+        long value(){
+            return values[pos];
+        }
+
+        boolean next(){
+            return ++pos < values.length;
+        }
+
+        @Override
+        public int compareTo(Cursor o) {
+            return Long.compare(value(), o.value());
+        }
+    }
+}
@@ -1,14 +1,16 @@
 package com.center.aurora.service.user;
 
 import com.center.aurora.domain.user.User;
-import com.center.aurora.domain.user.friend.Friend;
-import com.center.aurora.domain.user.friend.FriendId;
 import com.center.aurora.domain.user.friend.FriendStatus;
-import com.center.aurora.repository.user.FriendRepository;
+import com.center.aurora.exception.BadRequestException;
 import com.center.aurora.repository.user.UserRepository;
 import com.center.aurora.service.user.dto.FriendListDto;
+import com.center.aurora.service.user.dto.FriendPageDto;
+import com.center.aurora.service.user.dto.UserSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,14 +24,92 @@ public class FriendService {
 
     private final UserRepository userRepository;
 
-    private final FriendRepository friendRepository;
+    private final FriendshipStore friendshipStore;
+
+    private final UserSummaryCache userSummaryCache;
+
+    private final FriendGraph friendGraph;
+
+    public static final int MAX_FRIEND_PAGE_SIZE = 100;
 
     @Transactional(readOnly = true)
     public List<FriendListDto> findAllFriends(Long myId){
-        User me = userRepository.findById(myId).get();
-        return me.getFriends().stream()
-                .filter(x -> x.getStatus().equals(FriendStatus.FRIEND))
-                .map(Friend::getYou)
+        return toFriendList(friendshipStore.findFriendPage(myId, null, null, Pageable.unpaged()));
+    }
+
+    /**
+     * 이름, id 순 키셋 페이지네이션. friend(user_id, status) 인덱스로 한 페이지를 쿼리 한번에 읽고,
+     * 유저 엔티티 대신 (id, name, image) 만 가져온다. afterName 이 없으면 첫 페이지.
+     * */
+    @Transactional(readOnly = true)
+    public FriendPageDto findFriends(Long myId, String afterName, Long afterId, int size){
+        if(size < 1 || size > MAX_FRIEND_PAGE_SIZE)
+            throw new BadRequestException("size 는 1 ~ " + MAX_FRIEND_PAGE_SIZE + " 사이여야 합니다.");
+
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Object[]> rows = friendshipStore.findFriendPage(myId, afterName, (afterId == null)? 0L : afterId, limit);
+
+        boolean hasNext = rows.size() > size;
+        if(hasNext) rows = rows.subList(0, size);
+        return new FriendPageDto(toFriendList(rows), countFriends(myId), hasNext);
+    }
+
+    @Transactional(readOnly = true)
+    public long countFriends(Long myId){
+        if(friendGraph.isReady()) return friendGraph.friendsOf(myId).length;
+        return friendshipStore.countFriends(myId);
+    }
+
+    private List<FriendListDto> toFriendList(List<Object[]> rows){
+        return rows.stream()
+                .map(x -> new FriendListDto(new UserSummary(((Number) x[0]).longValue(), (String) x[1], (String) x[2])))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 나와 각 target 의 친구 상태를 쿼리 한번으로 조회한다. 관계가 없거나 로그인하지 않았으면 NOT_FRIEND
+     * */
+    @Transactional(readOnly = true)
+    public Map<Long, FriendStatus> getFriendStatuses(Long myId, Collection<Long> targetIds){
+        Map<Long, FriendStatus> ret = new HashMap<>();
+        for (Long targetId : targetIds) ret.put(targetId, FriendStatus.NOT_FRIEND);
+        if(myId == null || ret.isEmpty()) return ret;
+
+        ret.putAll(friendshipStore.findStatuses(myId, ret.keySet()));
+        return ret;
+    }
+
+    /**
+     * 나와 각 target 이 함께 아는 친구 수. 메모리 친구 그래프에서 정렬된 배열 교집합으로 계산하고,
+     * 그래프가 워밍업 중이면 friend 셀프 조인 한번으로 모든 target 을 같이 센다.
+     * */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> countMutualFriends(Long myId, Collection<Long> targetIds){
+        Map<Long, Integer> ret = new HashMap<>();
+        if(myId == null || targetIds.isEmpty()) return ret;
+
+        if(friendGraph.isReady()){
+            for (Long targetId : targetIds) ret.put(targetId, friendGraph.mutualCount(myId, targetId));
+            return ret;
+        }
+        for (Long targetId : targetIds) ret.put(targetId, 0);
+        ret.putAll(friendshipStore.countMutualFriends(myId, new HashSet<>(targetIds)));
+        return ret;
+    }
+
+    @Transactional(readOnly = true)
+    public List<FriendListDto> findMutualFriends(Long myId, Long targetId){
+        List<Long> mutualIds = new ArrayList<>();
+        if(friendGraph.isReady()){
+            for (long id : friendGraph.mutualFriends(myId, targetId)) mutualIds.add(id);
+        }else{
+            mutualIds.addAll(friendshipStore.findMutualFriendIds(myId, targetId));
+        }
+
+        Map<Long, UserSummary> users = userSummaryCache.getAll(mutualIds);
+        return mutualIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
                 .map(FriendListDto::new)
                 .collect(Collectors.toList());
     }
@@ -39,31 +119,13 @@ public class FriendService {
         User me = userRepository.findById(myId).get();
         User friend = userRepository.findById(friendId).get();
 
-        addFriendLogic(me, friend);
-        addFriendLogic(friend, me);
+        friendshipStore.changeStatus(me.getId(), friend.getId(), FriendStatus.FRIEND);
 
         log.info("친구 등록됨!");
     }
 
-    public void addFriendLogic(User user1, User user2){
-        Long myId = user1.getId(), friendId = user2.getId();
-        FriendId id = new FriendId(myId, friendId);
-
-        Optional<Friend> relation = friendRepository.findById(id);
-        if(relation.isPresent()){
-            relation.get().changeStatusToFriend();
-        }else{
-            Friend newFriend = Friend.builder().id(id).me(user1).you(user2).status(FriendStatus.FRIEND).build();
-            friendRepository.save(newFriend);
-        }
-    }
-
     @Transactional
     public void deleteFriend(Long myId, Long friendId){
-        Friend relation1 = friendRepository.findById(new FriendId(myId, friendId)).get();
-        Friend relation2 = friendRepository.findById(new FriendId(friendId, myId)).get();
-
-        friendRepository.delete(relation1);
-        friendRepository.delete(relation2);
+        friendshipStore.delete(myId, friendId);
     }
 }
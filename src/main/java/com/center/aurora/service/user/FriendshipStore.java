@@ -0,0 +1,184 @@
+package com.center.aurora.service.user;
+
+import com.center.aurora.config.AppProperties;
+import com.center.aurora.config.AppProperties.Friendship.Storage;
+import com.center.aurora.domain.user.friend.Friend;
+import com.center.aurora.domain.user.friend.FriendId;
+import com.center.aurora.domain.user.friend.FriendPair;
+import com.center.aurora.domain.user.friend.FriendPairId;
+import com.center.aurora.domain.user.friend.FriendStatus;
+import com.center.aurora.repository.user.FriendPairRepository;
+import com.center.aurora.repository.user.FriendRepository;
+import com.center.aurora.repository.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * 친구 관계 저장소. app.friendship.storage 에 따라 friend (방향별 두 행), friend_pair (쌍마다 한 행) 또는 양쪽에 쓴다.
+ * 읽기는 PAIR 모드에서만 friend_pair 에서 한다. 상태는 지금처럼 양방향을 같은 값으로 맞춘다.
+ * 호출하는 쪽의 트랜잭션 안에서 사용한다.
+ * */
+@RequiredArgsConstructor
+@Component
+public class FriendshipStore {
+
+    private final FriendRepository friendRepository;
+
+    private final FriendPairRepository friendPairRepository;
+
+    private final UserRepository userRepository;
+
+    private final AppProperties appProperties;
+
+    public void changeStatus(Long userId1, Long userId2, FriendStatus status){
+        if(storage() != Storage.PAIR){
+            changeDirected(userId1, userId2, status);
+            changeDirected(userId2, userId1, status);
+        }
+        if(storage() != Storage.DIRECTED){
+            FriendPair pair = friendPairRepository.findById(FriendPairId.of(userId1, userId2))
+                    .orElseGet(() -> FriendPair.of(userId1, userId2));
+            pair.changeStatus(userId1, status);
+            pair.changeStatus(userId2, status);
+            friendPairRepository.save(pair);
+        }
+    }
+
+    /**
+     * 관계가 없을 때만 양방향을 ONGOING 으로 만들고 true. 이미 요청 중이거나 친구면 바꾸지 않고 false.
+     * 행 하나를 insert ignore 하는 것이라 같은 요청이 재시도되거나 동시에 들어와도 한번만 true 가 된다.
+     * DUAL 모드에서는 friend 가 기준이다. friend 에 관계가 이미 있으면 아직 이관되지 않은 쌍일 수 있으므로 friend_pair 에 쓰지 않는다.
+     * */
+    public boolean requestIfAbsent(Long from, Long to){
+        if(storage() == Storage.PAIR) return insertPairIfAbsent(from, to);
+
+        boolean requested = friendRepository.insertIgnore(from, to, FriendStatus.ONGOING.name()) > 0;
+        if(!requested) return false;
+        friendRepository.insertIgnore(to, from, FriendStatus.ONGOING.name());
+        if(storage() == Storage.DUAL) insertPairIfAbsent(from, to);
+        return true;
+    }
+
+    private boolean insertPairIfAbsent(Long from, Long to){
+        FriendPair pair = FriendPair.of(from, to);
+        pair.changeStatus(from, FriendStatus.ONGOING);
+        pair.changeStatus(to, FriendStatus.ONGOING);
+        return friendPairRepository.insertIgnore(pair.getId().getLowId(), pair.getId().getHighId(), pair.getState()) > 0;
+    }
+
+    public void delete(Long userId1, Long userId2){
+        if(storage() != Storage.PAIR){
+            friendRepository.findById(new FriendId(userId1, userId2)).ifPresent(friendRepository::delete);
+            friendRepository.findById(new FriendId(userId2, userId1)).ifPresent(friendRepository::delete);
+        }
+        if(storage() != Storage.DIRECTED){
+            friendPairRepository.findById(FriendPairId.of(userId1, userId2)).ifPresent(friendPairRepository::delete);
+        }
+    }
+
+    /**
+     * me -> target 상태. 관계가 없는 target 은 빠진다.
+     * */
+    public Map<Long, FriendStatus> findStatuses(Long myId, Collection<Long> targetIds){
+        Map<Long, FriendStatus> ret = new HashMap<>();
+        if(storage() == Storage.PAIR){
+            for (FriendPair pair : friendPairRepository.findAllByUserAndTargets(myId, targetIds)) {
+                FriendStatus status = pair.statusOf(myId);
+                if(status != FriendStatus.NOT_FRIEND) ret.put(pair.otherOf(myId), status);
+            }
+            return ret;
+        }
+        for (Object[] row : friendRepository.findStatusesByTargets(myId, targetIds)) {
+            ret.put((Long) row[0], (FriendStatus) row[1]);
+        }
+        return ret;
+    }
+
+    /**
+     * 상태와 관계없이 관계가 있는 모든 유저 id
+     * */
+    public List<Long> findRelatedUserIds(Long myId){
+        if(storage() != Storage.PAIR) return friendRepository.findAllRelatedUserIds(myId);
+        return toIds(friendPairRepository.findAllOtherIds(myId));
+    }
+
+    /**
+     * 이름, id 순 (id, name, image). afterName 이 없으면 첫 페이지.
+     * */
+    public List<Object[]> findFriendPage(Long myId, String afterName, Long afterId, Pageable pageable){
+        if(storage() == Storage.PAIR){
+            return (afterName == null)
+                    ? friendPairRepository.findFriendPage(myId, FriendPair.FRIENDS, pageable)
+                    : friendPairRepository.findFriendPageAfter(myId, FriendPair.FRIENDS, afterName, afterId, pageable);
+        }
+        return (afterName == null)
+                ? friendRepository.findFriendPage(myId, FriendStatus.FRIEND, pageable)
+                : friendRepository.findFriendPageAfter(myId, FriendStatus.FRIEND, afterName, afterId, pageable);
+    }
+
+    public long countFriends(Long myId){
+        if(storage() == Storage.PAIR) return friendPairRepository.countByUserAndState(myId, FriendPair.FRIENDS).longValue();
+        return friendRepository.countByMeAndStatus(myId, FriendStatus.FRIEND);
+    }
+
+    /**
+     * (target id, 함께 아는 친구 수). 함께 아는 친구가 없는 target 은 빠질 수 있다.
+     * 모드와 관계없이 모든 target 을 쿼리 한번으로 센다. (친구 그래프 워밍업 중에만 쓰인다)
+     * */
+    public Map<Long, Integer> countMutualFriends(Long myId, Collection<Long> targetIds){
+        Map<Long, Integer> ret = new HashMap<>();
+        List<Object[]> rows = (storage() == Storage.PAIR)
+                ? friendPairRepository.countMutualFriends(myId, FriendPair.FRIENDS, targetIds)
+                : friendRepository.countMutualFriends(myId, targetIds);
+        for (Object[] row : rows) {
+            ret.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+        }
+        return ret;
+    }
+
+    public List<Long> findMutualFriendIds(Long myId, Long targetId){
+        if(storage() == Storage.PAIR){
+            List<Long> ret = new ArrayList<>();
+            for (long id : FriendGraph.intersection(friendIdsOf(myId), friendIdsOf(targetId))) ret.add(id);
+            return ret;
+        }
+        return toIds(friendRepository.findMutualFriendIds(myId, targetId));
+    }
+
+    public void forEachFriendship(BiConsumer<Long, Long> consumer){
+        if(storage() == Storage.PAIR) friendPairRepository.forEachFriendship(consumer);
+        else friendRepository.forEachFriendship(consumer);
+    }
+
+    private void changeDirected(Long me, Long you, FriendStatus status){
+        Optional<Friend> relation = friendRepository.findById(new FriendId(me, you));
+        if(relation.isPresent()){
+            relation.get().changeStatus(status);
+        }else{
+            friendRepository.save(Friend.builder().id(new FriendId(me, you))
+                    .me(userRepository.getById(me)).you(userRepository.getById(you)).status(status).build());
+        }
+    }
+
+    private long[] friendIdsOf(Long userId){
+        List<Number> ids = friendPairRepository.findOtherIdsByState(userId, FriendPair.FRIENDS);
+        long[] ret = new long[ids.size()];
+        for (int i = 0; i < ret.length; i++) ret[i] = ids.get(i).longValue();
+        Arrays.sort(ret);
+        return ret;
+    }
+
+    private static List<Long> toIds(List<Number> ids){
+        List<Long> ret = new ArrayList<>(ids.size());
+        for (Number id : ids) ret.add(id.longValue());
+        return ret;
+    }
+
+    private Storage storage(){
+        return appProperties.getFriendship().getStorage();
+    }
+}
@@ -0,0 +1,90 @@
+package com.center.aurora.service.user;
+
+import com.center.aurora.domain.user.UserChangedEvent;
+import com.center.aurora.repository.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 랜덤 유저 추출기. ORDER BY RAND() 대신 메모리의 유저 id 배열에서 k 개를 뽑는다.
+ * 배열은 빈틈 없이 유지하고 (삭제 시 마지막 원소로 메움) 뽑은 id 가 겹치거나 제외 대상이면 다시 뽑는다.
+ * */
+@RequiredArgsConstructor
+@Component
+public class RandomUserSampler {
+
+    private final UserRepository userRepository;
+
+    private long[] ids = new long[0];
+    private int size = 0;
+    /** id -> ids 배열의 위치 * */
+    private final Map<Long, Integer> positions = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild(){
+        List<Long> all = userRepository.findAllIds();
+        ids = new long[Math.max(16, all.size())];
+        size = 0;
+        positions.clear();
+        for (Long id : all) add(id);
+    }
+
+    @EventListener
+    public synchronized void onUserChanged(UserChangedEvent event){
+        if(event.isDeleted()) remove(event.getUserId());
+        else add(event.getUserId());
+    }
+
+    /**
+     * DB 에서 찾을 수 없는 id. (삭제 이벤트를 놓친 경우)
+     * */
+    public synchronized void evict(Collection<Long> staleIds){
+        for (Long id : staleIds) remove(id);
+    }
+
+    /**
+     * exclude 에 없는 서로 다른 id 를 최대 count 개 뽑는다. 후보가 count 개 이하이면 후보 전부를 섞어서 반환한다.
+     * */
+    public synchronized List<Long> sample(int count, Set<Long> exclude){
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int excluded = 0;
+        for (Long id : exclude) if(positions.containsKey(id)) excluded++;
+
+        if(size - excluded <= count){
+            List<Long> ret = new ArrayList<>();
+            for (int i = 0; i < size; i++) if(!exclude.contains(ids[i])) ret.add(ids[i]);
+            Collections.shuffle(ret, random);
+            return ret;
+        }
+
+        Set<Long> picked = new LinkedHashSet<>();
+        while(picked.size() < count){
+            long id = ids[random.nextInt(size)];
+            if(!exclude.contains(id)) picked.add(id);
+        }
+        return new ArrayList<>(picked);
+    }
+
+    private void add(long id){
+        if(positions.containsKey(id)) return;
+        if(size == ids.length) ids = Arrays.copyOf(ids, Math.max(16, size * 2));
+        ids[size] = id;
+        positions.put(id, size++);
+    }
+
+    private void remove(long id){
+        Integer pos = positions.remove(id);
+        if(pos == null) return;
+
+        long last = ids[--size];
+        if(pos != size){
+            ids[pos] = last;
+            positions.put(last, pos);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.center.aurora.service.user;
+
+import com.center.aurora.domain.user.UserChangedEvent;
+import com.center.aurora.repository.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * 유저 이름 접두사 검색용 메모리 인덱스.
+ * 정규화한 이름과 초성으로 분해한 키를 각각 (키, id) 순으로 정렬된 배열에 담고, 이진 탐색으로 접두사 범위를 찾는다.
+ * 배열은 변경 시 복사 후 교체하므로 검색은 락 없이 동작한다. 워밍업이 끝나기 전에는 검색하지 않는다. (DB 로 대체)
+ * */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class UserSearchIndex {
+
+    private static final char[] CHOSUNG = {
+            'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ',
+            'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+    /** 검색 한번에 관련도 순으로 정렬해서 들고 있는 최대 후보 수 * */
+    public static final int MAX_RESULTS = 1000;
+
+    private static final char HANGUL_BEGIN = '가';
+    private static final char HANGUL_END = '힣';
+    private static final int JUNGSUNG_JONGSUNG_COUNT = 21 * 28;
+
+    private final UserRepository userRepository;
+
+    private final Object lock = new Object();
+    /** 워밍업 도중 들어온 변경. (값이 null 이면 삭제) lock 으로 보호 * */
+    private final Map<Long, String> pending = new LinkedHashMap<>();
+    /** id -> 정규화된 이름. lock 으로 보호 * */
+    private final Map<Long, String> names = new HashMap<>();
+
+    private volatile SortedKeys byName = SortedKeys.EMPTY;
+    private volatile SortedKeys byChosung = SortedKeys.EMPTY;
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp(){
+        Thread thread = new Thread(this::rebuild, "user-search-index-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void rebuild(){
+        List<Object[]> rows = userRepository.findAllIdAndName();
+        synchronized (lock){
+            names.clear();
+            for (Object[] row : rows) {
+                if(row[1] != null) names.put((Long) row[0], normalize((String) row[1]));
+            }
+            pending.forEach((id, name) -> {
+                if(name == null) names.remove(id);
+                else names.put(id, name);
+            });
+            pending.clear();
+
+            byName = SortedKeys.build(names, UnaryOperator.identity());
+            byChosung = SortedKeys.build(names, UserSearchIndex::chosungKey);
+            ready = true;
+        }
+        log.info("user search index ready : {} users", rows.size());
+    }
+
+    public boolean isReady(){
+        return ready;
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event){
+        String name = (event.isDeleted() || event.getName() == null)? null : normalize(event.getName());
+        synchronized (lock){
+            if(!ready){
+                pending.put(event.getUserId(), name);
+                return;
+            }
+            String before = (name == null)? names.remove(event.getUserId()) : names.put(event.getUserId(), name);
+            if(Objects.equals(before, name)) return;
+
+            long id = event.getUserId();
+            SortedKeys nextByName = byName;
+            SortedKeys nextByChosung = byChosung;
+            if(before != null){
+                nextByName = nextByName.without(before, id);
+                nextByChosung = nextByChosung.without(chosungKey(before), id);
+            }
+            if(name != null){
+                nextByName = nextByName.with(name, name, id);
+                nextByChosung = nextByChosung.with(chosungKey(name), name, id);
+            }
+            byName = nextByName;
+            byChosung = nextByChosung;
+        }
+    }
+
+    /**
+     * 관련도 순으로 page 번째 size 개의 유저 id 를 반환한다. 워밍업 전이면 null.
+     * 관련도 : 이름 일치 > 접두사 일치 > 초성 일치, 같은 점수면 짧은 이름, 이름 순
+     * 상위 MAX_RESULTS 개 안쪽만 볼 수 있고, 그 밖의 페이지는 빈 결과를 준다.
+     * */
+    public List<Long> search(String query, int page, int size){
+        if(page < 0 || size < 1) throw new IllegalArgumentException("page 는 0 이상, size 는 1 이상이어야 합니다.");
+        if(!ready) return null;
+        if((long) page * size >= MAX_RESULTS) return new ArrayList<>();
+
+        String normalized = normalize(query);
+        if(normalized.isEmpty()) return new ArrayList<>();
+
+        boolean hasChosung = false;
+        for (int i = 0; i < normalized.length(); i++) {
+            if(isChosung(normalized.charAt(i))) hasChosung = true;
+        }
+        SortedKeys keys = hasChosung? byChosung : byName;
+        String prefix = hasChosung? chosungKey(normalized) : normalized;
+
+        int limit = (int) Math.min((long) (page + 1) * size, MAX_RESULTS);
+        PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, Candidate.ORDER.reversed());
+        int end = keys.lowerBound(prefix + Character.MAX_VALUE);
+        for (int i = keys.lowerBound(prefix); i < end; i++) {
+            String name = keys.names[i];
+            if(hasChosung && !matches(normalized, name)) continue;
+
+            top.add(new Candidate(keys.ids[i], name, score(normalized, name)));
+            if(top.size() > limit) top.poll();
+        }
+
+        List<Candidate> sorted = new ArrayList<>(top);
+        sorted.sort(Candidate.ORDER);
+        List<Long> ret = new ArrayList<>();
+        for (int i = page * size; i < sorted.size(); i++) ret.add(sorted.get(i).id);
+        return ret;
+    }
+
+    static String normalize(String name){
+        String nfc = Normalizer.normalize(name, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(nfc.length());
+        for (int i = 0; i < nfc.length(); i++) {
+            char c = nfc.charAt(i);
+            if(!Character.isWhitespace(c)) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    static String chosungKey(String normalized){
+        char[] ret = normalized.toCharArray();
+        for (int i = 0; i < ret.length; i++) ret[i] = chosungOf(ret[i]);
+        return new String(ret);
+    }
+
+    private static char chosungOf(char c){
+        if(c < HANGUL_BEGIN || c > HANGUL_END) return c;
+        return CHOSUNG[(c - HANGUL_BEGIN) / JUNGSUNG_JONGSUNG_COUNT];
+    }
+
+    private static boolean isChosung(char c){
+        return Arrays.binarySearch(CHOSUNG, c) >= 0;
+    }
+
+    /** 쿼리의 각 글자가 이름의 같은 글자이거나, 그 글자의 초성이면 일치 * */
+    private static boolean matches(String query, String name){
+        for (int i = 0; i < query.length(); i++) {
+            char q = query.charAt(i);
+            char n = name.charAt(i);
+            if(q != n && !(isChosung(q) && chosungOf(n) == q)) return false;
+        }
+        return true;
+    }
+
+    private static int score(String query, String name){
+        if(name.equals(query)) return 3;
+        if(name.startsWith(query)) return 2;
+        return 1;
+    }
+
+    private static final class Candidate {
+        static final Comparator<Candidate> ORDER = Comparator.comparingInt((Candidate c) -> -c.score)
+                .thenComparingInt(c -> c.name.length())
+                .thenComparing(c -> c.name)
+                .thenComparingLong(c -> c.id);
+
+        final long id;
+        final String name;
+        final int score;
+
+        Candidate(long id, String name, int score) {
+            this.id = id;
+            this.name = name;
+            this.score = score;
+        }
+    }
+
+    /**
+     * (key, id) 순으로 정렬된 불변 배열. names 는 같은 위치 유저의 정규화된 이름
+     * */
+    private static final class SortedKeys {
+        static final SortedKeys EMPTY = new SortedKeys(new String[0], new String[0], new long[0]);
+
+        final String[] keys;
+        final String[] names;
+        final long[] ids;
+
+        SortedKeys(String[] keys, String[] names, long[] ids) {
+            this.keys = keys;
+            this.names = names;
+            this.ids = ids;
+        }
+
+        static SortedKeys build(Map<Long, String> names, UnaryOperator<String> keyOf){
+            List<Map.Entry<Long, String>> entries = new ArrayList<>(names.entrySet());
+            String[] keys = new String[entries.size()];
+            Integer[] order = new Integer[entries.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = keyOf.apply(entries.get(i).getValue());
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing((Integer i) -> keys[i]).thenComparing(i -> entries.get(i).getKey()));
+
+            SortedKeys ret = new SortedKeys(new String[keys.length], new String[keys.length], new long[keys.length]);
+            for (int i = 0; i < order.length; i++) {
+                ret.keys[i] = keys[order[i]];
+                ret.names[i] = entries.get(order[i]).getValue();
+                ret.ids[i] = entries.get(order[i]).getKey();
+            }
+            return ret;
+        }
+
+        SortedKeys with(String key, String name, long id){
+            int idx = position(key, id);
+            if(idx >= 0) return this;
+            idx = -idx - 1;
+
+            int n = ids.length;
+            SortedKeys ret = new SortedKeys(new String[n + 1], new String[n + 1], new long[n + 1]);
+            copy(this, 0, ret, 0, idx);
+            copy(this, idx, ret, idx + 1, n - idx);
+            ret.keys[idx] = key;
+            ret.names[idx] = name;
+            ret.ids[idx] = id;
+            return ret;
+        }
+
+        SortedKeys without(String key, long id){
+            int idx = position(key, id);
+            if(idx < 0) return this;
+
+            int n = ids.length;
+            SortedKeys ret = new SortedKeys(new String[n - 1], new String[n - 1], new long[n - 1]);
+            copy(this, 0, ret, 0, idx);
+            copy(this, idx + 1, ret, idx, n - idx - 1);
+            return ret;
+        }
+
+        /** key 이상인 첫 위치 * */
+        int lowerBound(String key){
+            int lo = 0, hi = keys.length;
+            while(lo < hi){
+                int mid = (lo + hi) >>> 1;
+                if(keys[mid].compareTo(key) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        private int position(String key, long id){
+            int lo = 0, hi = keys.length - 1;
+            while(lo <= hi){
+                int mid = (lo + hi) >>> 1;
+                int cmp = keys[mid].compareTo(key);
+                if(cmp == 0) cmp = Long.compare(ids[mid], id);
+                if(cmp < 0) lo = mid + 1;
+                else if(cmp > 0) hi = mid - 1;
+                else return mid;
+            }
+            return -(lo + 1);
+        }
+
+        private static void copy(SortedKeys src, int from, SortedKeys dst, int to, int length){
+            System.arraycopy(src.keys, from, dst.keys, to, length);
+            System.arraycopy(src.names, from, dst.names, to, length);
+            System.arraycopy(src.ids, from, dst.ids, to, length);
+        }
+    }
+}
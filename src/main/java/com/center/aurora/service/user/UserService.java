@@ -1,37 +1,50 @@
 package com.center.aurora.service.user;
 
 import com.center.aurora.domain.user.User;
-import com.center.aurora.domain.user.friend.Friend;
-import com.center.aurora.domain.user.friend.FriendId;
 import com.center.aurora.domain.user.friend.FriendStatus;
-import com.center.aurora.repository.user.FriendRepository;
+import com.center.aurora.exception.BadRequestException;
 import com.center.aurora.repository.user.UserRepository;
 import com.center.aurora.service.user.dto.RandomUserListDto;
 import com.center.aurora.service.user.dto.UserDto;
 import com.center.aurora.service.user.dto.UserListDto;
+import com.center.aurora.service.user.dto.UserSummary;
 import com.center.aurora.service.user.dto.UserUpdateDto;
 import com.center.aurora.utils.S3Uploader;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
 public class UserService {
 
+    private static final int DEFAULT_SEARCH_SIZE = 20;
+    private static final int MAX_SEARCH_SIZE = 100;
+    private static final int RANDOM_USER_COUNT = 3;
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final UserRepository userRepository;
 
-    private final FriendRepository friendRepository;
+    private final FriendshipStore friendshipStore;
 
     private final S3Uploader s3Uploader;
 
+    private final UserSearchIndex userSearchIndex;
+
+    private final RandomUserSampler randomUserSampler;
+
+    private final UserSummaryCache userSummaryCache;
+
+    private final FriendService friendService;
+
     @Transactional
     public void userUpdate(Long id, UserUpdateDto updateDto) throws IOException {
         User me = userRepository.findById(id).get();
@@ -54,11 +67,68 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public List<UserListDto> findUsersByName(String name){
-        List<User> users = userRepository.findUserByName(name);
+        return findUsersByName(name, PageRequest.of(0, DEFAULT_SEARCH_SIZE));
+    }
+
+    /**
+     * 검색 인덱스에서 관련도 순으로 id 를 뽑아 한번에 조회한다.
+     * 인덱스가 아직 워밍업 중이면 이름 인덱스를 타는 DB 접두사 검색으로 대체한다. (초성 검색 불가)
+     * */
+    @Transactional(readOnly = true)
+    public List<UserListDto> findUsersByName(String name, Pageable pageable){
+        return findUsersByName(name, pageable, null);
+    }
 
+    /**
+     * viewerId 가 있으면 각 유저와의 친구 상태, 함께 아는 친구 수를 한번에 계산해서 채운다.
+     * */
+    @Transactional(readOnly = true)
+    public List<UserListDto> findUsersByName(String name, Pageable pageable, Long viewerId){
+        checkSearchPage(pageable);
+        List<User> users;
+        List<Long> ids = userSearchIndex.search(name, pageable.getPageNumber(), pageable.getPageSize());
+        if(ids == null){
+            users = userRepository.findUserByName(name, pageable);
+        }else{
+            Map<Long, User> found = userRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            users = ids.stream()
+                    .map(found::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+
+        List<Long> userIds = users.stream().map(User::getId).collect(Collectors.toList());
+        Map<Long, FriendStatus> statuses = friendService.getFriendStatuses(viewerId, userIds);
+        Map<Long, Integer> mutualCounts = friendService.countMutualFriends(viewerId, userIds);
         return users.stream()
-                .map(UserListDto::new)
-                .sorted(Comparator.comparing(UserListDto::getName))
+                .map(x -> new UserListDto(x, statuses.get(x.getId()).name(), mutualCounts.getOrDefault(x.getId(), 0)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 검색은 인증 없이도 호출되므로 page, size 를 UserSearchIndex.MAX_RESULTS 안쪽으로 제한한다.
+     * */
+    private static void checkSearchPage(Pageable pageable){
+        if(pageable.isUnpaged()) throw new BadRequestException("검색은 페이지 단위로만 조회할 수 있습니다.");
+        if(pageable.getPageSize() > MAX_SEARCH_SIZE)
+            throw new BadRequestException("size 는 1 ~ " + MAX_SEARCH_SIZE + " 사이여야 합니다.");
+        if((long) pageable.getPageNumber() * pageable.getPageSize() >= UserSearchIndex.MAX_RESULTS)
+            throw new BadRequestException("검색 결과는 앞 " + UserSearchIndex.MAX_RESULTS + "명까지만 볼 수 있습니다.");
+    }
+
+    /**
+     * 요청한 id 순서대로 반환하고, 없는 유저는 건너뛴다.
+     * */
+    public List<UserSummary> getUserSummaries(List<Long> ids){
+        if(ids.size() > MAX_BATCH_SIZE){
+            throw new BadRequestException("한번에 조회할 수 있는 유저는 최대 " + MAX_BATCH_SIZE + "명입니다.");
+        }
+        Map<Long, UserSummary> summaries = userSummaryCache.getAll(ids);
+        return ids.stream()
+                .distinct()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
@@ -74,17 +144,47 @@ public class UserService {
     public UserDto getUser(Long myId, Long targetId){
         User user = userRepository.findById(targetId).get();
 
-        String status = FriendStatus.NOT_FRIEND.name();
-        Optional<Friend> friend = friendRepository.findById(new FriendId(myId, targetId));
-        if(friend.isPresent()){
-            status = friend.get().getStatus().name();
-        }
-        return new UserDto(user, status);
+        String status = friendService.getFriendStatuses(myId, List.of(targetId)).get(targetId).name();
+        int mutualFriendCount = friendService.countMutualFriends(myId, List.of(targetId)).getOrDefault(targetId, 0);
+        return new UserDto(user, status, mutualFriendCount);
     }
 
     @Transactional(readOnly = true)
     public List<RandomUserListDto> getRandomUsers(){
-        List<User> users = userRepository.findAllRandom();
-        return users.stream().map(RandomUserListDto::new).collect(Collectors.toList());
+        return getRandomUsers(null, false);
+    }
+
+    /**
+     * excludeFriends 이면 나와 이미 친구(요청 포함)인 유저를 제외한다. (추천 친구)
+     * 추출기에 남아있던 없는 유저 id 는 추출기에서 빼고, 모자란 만큼 다시 뽑는다.
+     * */
+    @Transactional(readOnly = true)
+    public List<RandomUserListDto> getRandomUsers(Long myId, boolean excludeFriends){
+        Set<Long> exclude = new HashSet<>();
+        if(myId != null && excludeFriends){
+            exclude.add(myId);
+            exclude.addAll(friendshipStore.findRelatedUserIds(myId));
+        }
+
+        List<RandomUserListDto> ret = new ArrayList<>();
+        // 뽑은 id 는 다음 추출에서 빠지고 없는 id 는 추출기에서 지워지므로 후보가 바닥나면 끝난다.
+        while(ret.size() < RANDOM_USER_COUNT){
+            List<Long> ids = randomUserSampler.sample(RANDOM_USER_COUNT - ret.size(), exclude);
+            if(ids.isEmpty()) break;
+            exclude.addAll(ids);
+
+            Map<Long, User> users = userRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            if(users.size() < ids.size()){
+                randomUserSampler.evict(ids.stream().filter(x -> !users.containsKey(x)).collect(Collectors.toList()));
+            }
+            Map<Long, FriendStatus> statuses = friendService.getFriendStatuses(myId, users.keySet());
+            ids.stream()
+                    .map(users::get)
+                    .filter(Objects::nonNull)
+                    .map(x -> new RandomUserListDto(x, statuses.get(x.getId()).name()))
+                    .forEach(ret::add);
+        }
+        return ret;
     }
 }
@@ -0,0 +1,59 @@
+package com.center.aurora.service.user;
+
+import com.center.aurora.domain.user.UserChangedEvent;
+import com.center.aurora.repository.user.UserRepository;
+import com.center.aurora.service.user.dto.UserSummary;
+import com.center.aurora.utils.BoundedCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 유저 id -> (이름, 아바타) 캐시. 게시물 작성자, 댓글 작성자, 채팅 상대, 알림 보낸 사람 등
+ * 여러 유저를 그리는 DTO 들이 유저를 하나씩 lazy 로딩하지 않도록, 없는 id 들은 IN 쿼리 한번으로 채운다.
+ * 유저 정보가 바뀌거나 삭제되면 커밋 후 지운다. DB 를 읽는 동안 지워진 유저는 읽은 값을 캐시에 넣지 않는다. (BoundedCache 버전)
+ * */
+@RequiredArgsConstructor
+@Component
+public class UserSummaryCache {
+
+    private static final int MAX_USERS = 50_000;
+
+    private final UserRepository userRepository;
+
+    private final BoundedCache<Long, UserSummary> summaries = new BoundedCache<>(MAX_USERS);
+
+    public UserSummary get(Long userId){
+        if(userId == null) return null;
+        return getAll(Collections.singletonList(userId)).get(userId);
+    }
+
+    /**
+     * 존재하지 않는 유저 id 는 결과에서 빠진다.
+     * */
+    public Map<Long, UserSummary> getAll(Collection<Long> userIds){
+        Map<Long, UserSummary> ret = new HashMap<>();
+        Map<Long, Long> misses = new HashMap<>();
+        for (Long userId : userIds) {
+            if(userId == null) continue;
+            UserSummary summary = summaries.get(userId);
+            if(summary == null) misses.put(userId, summaries.version(userId));
+            else ret.put(userId, summary);
+        }
+        if(misses.isEmpty()) return ret;
+
+        for (Object[] row : userRepository.findAllSummaryByIdIn(misses.keySet())) {
+            UserSummary summary = new UserSummary((Long) row[0], (String) row[1], (String) row[2]);
+            summaries.putIfUnchanged(summary.getId(), summary, misses.get(summary.getId()));
+            ret.put(summary.getId(), summary);
+        }
+        return ret;
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event){
+        summaries.invalidate(event.getUserId());
+    }
+}
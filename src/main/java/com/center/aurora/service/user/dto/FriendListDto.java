@@ -1,6 +1,5 @@
 package com.center.aurora.service.user.dto;
 
-import com.center.aurora.domain.user.User;
 import lombok.Getter;
 
 @Getter
@@ -9,9 +8,9 @@ public class FriendListDto {
     String name;
     String avatar;
 
-    public FriendListDto(User user) {
+    public FriendListDto(UserSummary user) {
         this.id = user.getId();
         this.name = user.getName();
-        this.avatar = user.getImage();
+        this.avatar = user.getAvatar();
     }
 }
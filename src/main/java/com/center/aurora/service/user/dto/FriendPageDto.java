@@ -0,0 +1,21 @@
+package com.center.aurora.service.user.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 이름순 친구 목록 한 페이지. 다음 페이지는 마지막 친구의 (name, id) 를 afterName, afterId 로 넘겨 조회한다.
+ * */
+@Getter
+public class FriendPageDto {
+    private List<FriendListDto> friends;
+    private long friendCount;
+    private boolean hasNext;
+
+    public FriendPageDto(List<FriendListDto> friends, long friendCount, boolean hasNext) {
+        this.friends = friends;
+        this.friendCount = friendCount;
+        this.hasNext = hasNext;
+    }
+}
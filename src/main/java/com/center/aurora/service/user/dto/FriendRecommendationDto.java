@@ -0,0 +1,18 @@
+package com.center.aurora.service.user.dto;
+
+import lombok.Getter;
+
+@Getter
+public class FriendRecommendationDto {
+    private Long id;
+    private String name;
+    private String avatar;
+    private int mutualFriendCount;
+
+    public FriendRecommendationDto(UserSummary user, int mutualFriendCount) {
+        this.id = user.getId();
+        this.name = user.getName();
+        this.avatar = user.getAvatar();
+        this.mutualFriendCount = mutualFriendCount;
+    }
+}
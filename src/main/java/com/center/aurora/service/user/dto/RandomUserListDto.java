@@ -1,6 +1,7 @@
 package com.center.aurora.service.user.dto;
 
 import com.center.aurora.domain.user.User;
+import com.center.aurora.domain.user.friend.FriendStatus;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
@@ -14,9 +15,16 @@ public class RandomUserListDto {
 
     String avatar;
 
+    String status;
+
     public RandomUserListDto(User user) {
+        this(user, FriendStatus.NOT_FRIEND.name());
+    }
+
+    public RandomUserListDto(User user, String status) {
         this.id = user.getId();
         this.name = user.getName();
         this.avatar = user.getImage();
+        this.status = status;
     }
 }
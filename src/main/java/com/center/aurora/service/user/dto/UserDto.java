@@ -12,12 +12,18 @@ public class UserDto {
     private String avatar;
     private String bio;
     private String status;
+    private int mutualFriendCount;
 
     public UserDto(User user, String status) {
+        this(user, status, 0);
+    }
+
+    public UserDto(User user, String status, int mutualFriendCount) {
         this.id = user.getId();
         this.name = user.getName();
         this.avatar = user.getImage();
         this.bio = user.getBio();
         this.status = status;
+        this.mutualFriendCount = mutualFriendCount;
     }
 }
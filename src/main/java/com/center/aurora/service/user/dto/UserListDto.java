@@ -1,6 +1,7 @@
 package com.center.aurora.service.user.dto;
 
 import com.center.aurora.domain.user.User;
+import com.center.aurora.domain.user.friend.FriendStatus;
 import lombok.Getter;
 
 @Getter
@@ -11,9 +12,19 @@ public class UserListDto {
 
     private String avatar;
 
+    private String status;
+
+    private int mutualFriendCount;
+
     public UserListDto(User user) {
+        this(user, FriendStatus.NOT_FRIEND.name(), 0);
+    }
+
+    public UserListDto(User user, String status, int mutualFriendCount) {
         this.id = user.getId();
         this.name = user.getName();
         this.avatar = user.getImage();
+        this.status = status;
+        this.mutualFriendCount = mutualFriendCount;
     }
 }
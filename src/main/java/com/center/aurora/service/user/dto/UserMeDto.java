@@ -3,7 +3,6 @@ package com.center.aurora.service.user.dto;
 import com.center.aurora.domain.user.User;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import java.util.List;
 
 @Getter
 @NoArgsConstructor
@@ -14,7 +13,7 @@ public class UserMeDto {
     private String name;
     private String avatar;
     private String bio;
-    private List<Long> likeList;
+    private String likeBitmap; // 좋아요한 게시물 id 압축 비트맵 (Base64)
 
     public UserMeDto(User user) {
         this.id = user.getId();
@@ -24,12 +23,12 @@ public class UserMeDto {
         this.bio = user.getBio();
     }
 
-    public UserMeDto(User user, List<Long> likeList) {
+    public UserMeDto(User user, String likeBitmap) {
         this.id = user.getId();
         this.email = user.getEmail();
         this.name = user.getName();
         this.avatar = user.getImage();
         this.bio = user.getBio();
-        this.likeList = likeList;
+        this.likeBitmap = likeBitmap;
     }
 }
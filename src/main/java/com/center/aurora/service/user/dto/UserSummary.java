@@ -0,0 +1,19 @@
+package com.center.aurora.service.user.dto;
+
+import lombok.Getter;
+
+/**
+ * 화면에 유저를 그릴 때 필요한 최소 정보 (이름, 아바타)
+ * */
+@Getter
+public class UserSummary {
+    private Long id;
+    private String name;
+    private String avatar;
+
+    public UserSummary(Long id, String name, String avatar) {
+        this.id = id;
+        this.name = name;
+        this.avatar = avatar;
+    }
+}
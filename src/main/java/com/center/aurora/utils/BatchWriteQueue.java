@@ -0,0 +1,174 @@
+package com.center.aurora.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 호출 스레드를 막지 않도록 항목을 크기가 정해진 큐에 넣고, 작성 스레드 하나가 최대 batchSize 개씩 모아 writer 에 넘긴다.
+ * 큐가 가득 차면 offerTimeoutMsec 동안 기다리고(backpressure), 그래도 자리가 없으면 overflow 정책을 따른다.
+ * 배치 하나가 실패하면 항목마다 다시 시도해서 한 항목 때문에 배치 전체를 잃지 않게 한다.
+ * */
+public class BatchWriteQueue<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchWriteQueue.class);
+
+    public enum Overflow {
+        // 호출 스레드에서 바로 쓴다. 유실은 없지만 그 동안 호출 스레드가 DB 를 기다린다.
+        CALLER_RUNS,
+        // 버리고 개수만 센다.
+        DROP
+    }
+
+    private final String name;
+    private final int batchSize;
+    private final long offerTimeoutMsec;
+    private final Overflow overflow;
+    private final Consumer<List<T>> writer;
+    private final BlockingQueue<T> queue;
+
+    /** 큐에 있거나 쓰는 중인 항목 수 * */
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public BatchWriteQueue(String name, int capacity, int batchSize, long offerTimeoutMsec, Overflow overflow, Consumer<List<T>> writer) {
+        this.name = name;
+        this.batchSize = batchSize;
+        this.offerTimeoutMsec = offerTimeoutMsec;
+        this.overflow = overflow;
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public synchronized void start(){
+        if(running) return;
+        running = true;
+        thread = new Thread(this::drainLoop, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 작성 스레드를 멈추고 큐에 남은 항목은 호출 스레드에서 마저 쓴다.
+     * */
+    public synchronized void stop(){
+        if(!running) return;
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+        }
+        List<T> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int from = 0; from < rest.size(); from += batchSize) {
+            write(rest.subList(from, Math.min(from + batchSize, rest.size())));
+        }
+    }
+
+    /**
+     * 큐에 넣었거나 호출 스레드에서 썼으면 true, 버렸으면 false
+     * */
+    public boolean enqueue(T item){
+        pending.incrementAndGet();
+        try {
+            if(queue.offer(item) || (offerTimeoutMsec > 0 && queue.offer(item, offerTimeoutMsec, TimeUnit.MILLISECONDS))) return true;
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+        }
+
+        if(overflow == Overflow.CALLER_RUNS){
+            callerRuns.increment();
+            write(Collections.singletonList(item));
+            return true;
+        }
+        pending.decrementAndGet();
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * 지금까지 넣은 항목이 모두 쓰일 때까지 기다린다. 시간 안에 끝났으면 true
+     * */
+    public boolean awaitEmpty(long timeoutMsec) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMsec;
+        while(pending.get() > 0){
+            if(System.currentTimeMillis() >= deadline) return false;
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    private void drainLoop(){
+        List<T> batch = new ArrayList<>(batchSize);
+        while(running){
+            try {
+                T first = queue.poll(1, TimeUnit.SECONDS);
+                if(first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException ex){
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<T> batch){
+        try {
+            writer.accept(batch);
+            written.add(batch.size());
+        } catch (Exception ex){
+            log.warn("{} : 배치 {}건 쓰기 실패, 하나씩 다시 시도", name, batch.size(), ex);
+            for (T item : batch) {
+                try {
+                    writer.accept(Collections.singletonList(item));
+                    written.increment();
+                } catch (Exception itemEx){
+                    failed.increment();
+                    log.error("{} : 쓰기 실패 {}", name, item, itemEx);
+                }
+            }
+        } finally {
+            pending.addAndGet(-batch.size());
+        }
+    }
+
+    public int getPendingCount(){
+        return pending.get();
+    }
+
+    public long getWrittenCount(){
+        return written.sum();
+    }
+
+    public long getFailedCount(){
+        return failed.sum();
+    }
+
+    public long getDroppedCount(){
+        return dropped.sum();
+    }
+
+    public long getCallerRunsCount(){
+        return callerRuns.sum();
+    }
+}
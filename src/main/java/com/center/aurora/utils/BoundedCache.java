@@ -0,0 +1,97 @@
+package com.center.aurora.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * 최대 maxSize 개까지 들고 있는 LRU 캐시. 가득 차면 가장 오래 쓰이지 않은 항목을 지운다.
+ * DB 등에서 읽어 채울 때는 읽기 전에 version(key) 를 받아두고 putIfUnchanged 로 넣는다.
+ * 그 사이에 invalidate / markChanged 가 있었으면 (키를 나눈 구간별 버전이 바뀌었으면) 넣지 않아서 바뀌기 전 값이 다시 캐시되지 않는다.
+ * */
+public class BoundedCache<K, V> {
+
+    private static final int VERSION_STRIPES = 256;
+
+    private final Map<K, V> entries;
+
+    /** 키를 나눈 구간별 변경 횟수 * */
+    private final long[] versions = new long[VERSION_STRIPES];
+
+    public BoundedCache(int maxSize) {
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized V get(K key){
+        return entries.get(key);
+    }
+
+    public synchronized void put(K key, V value){
+        entries.put(key, value);
+    }
+
+    public synchronized long version(K key){
+        return versions[stripe(key)];
+    }
+
+    /**
+     * version 을 받은 뒤로 이 키 구간에 변경이 없었을 때만 넣는다. 넣었으면 true
+     * */
+    public synchronized boolean putIfUnchanged(K key, V value, long version){
+        if(versions[stripe(key)] != version) return false;
+        entries.put(key, value);
+        return true;
+    }
+
+    /**
+     * 값을 지우고 버전을 올린다. 지금 읽는 중인 값은 캐시에 들어가지 않는다.
+     * */
+    public synchronized void invalidate(K key){
+        versions[stripe(key)]++;
+        entries.remove(key);
+    }
+
+    /**
+     * 값을 제자리에서 고칠 때 쓴다. 버전만 올리고 지금 값을 (없으면 null) 반환한다.
+     * */
+    public synchronized V markChanged(K key){
+        versions[stripe(key)]++;
+        return entries.get(key);
+    }
+
+    /**
+     * 조건에 맞는 항목을 지우고 지운 개수를 반환한다.
+     * */
+    public synchronized int removeIf(BiPredicate<K, V> filter){
+        int removed = 0;
+        Iterator<Map.Entry<K, V>> it = entries.entrySet().iterator();
+        while(it.hasNext()){
+            Map.Entry<K, V> entry = it.next();
+            if(filter.test(entry.getKey(), entry.getValue())){
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized List<K> keys(){
+        return new ArrayList<>(entries.keySet());
+    }
+
+    public synchronized int size(){
+        return entries.size();
+    }
+
+    private static int stripe(Object key){
+        return Math.floorMod(key.hashCode(), VERSION_STRIPES);
+    }
+}
@@ -0,0 +1,245 @@
+package com.center.aurora.utils;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Roaring 방식의 압축 비트맵. (양수 long id 전용)
+ * id 의 상위 비트로 컨테이너를 나누고, 하위 16비트는 원소가 적으면 정렬된 char 배열,
+ * 4096개를 넘으면 8KB 비트맵에 담는다. 스레드 안전하지 않으므로 호출하는 쪽에서 동기화한다.
+ * */
+public class RoaringBitmap {
+
+    private static final int ARRAY_MAX_SIZE = 4096;
+    private static final byte ARRAY_CONTAINER = 0;
+    private static final byte BITMAP_CONTAINER = 1;
+
+    private long[] keys = new long[0];
+    private Container[] containers = new Container[0];
+    private int size = 0;
+
+    public boolean add(long value){
+        long key = value >>> 16;
+        char low = (char) value;
+        int idx = Arrays.binarySearch(keys, 0, size, key);
+        if(idx < 0){
+            idx = -idx - 1;
+            insertContainer(idx, key, new ArrayContainer());
+        }
+        Container before = containers[idx];
+        int prevCardinality = before.cardinality();
+        containers[idx] = before.add(low);
+        return containers[idx].cardinality() != prevCardinality;
+    }
+
+    public boolean remove(long value){
+        int idx = Arrays.binarySearch(keys, 0, size, value >>> 16);
+        if(idx < 0) return false;
+
+        Container before = containers[idx];
+        int prevCardinality = before.cardinality();
+        Container after = before.remove((char) value);
+        if(after.cardinality() == 0){
+            removeContainer(idx);
+        }else{
+            containers[idx] = after;
+        }
+        return after.cardinality() != prevCardinality;
+    }
+
+    public boolean contains(long value){
+        int idx = Arrays.binarySearch(keys, 0, size, value >>> 16);
+        return idx >= 0 && containers[idx].contains((char) value);
+    }
+
+    public long cardinality(){
+        long ret = 0;
+        for (int i = 0; i < size; i++) ret += containers[i].cardinality();
+        return ret;
+    }
+
+    public byte[] serialize(){
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeLong(keys[i]);
+                containers[i].writeTo(out);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException ex){
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public static RoaringBitmap deserialize(byte[] data){
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            RoaringBitmap ret = new RoaringBitmap();
+            int count = in.readInt();
+            ret.keys = new long[count];
+            ret.containers = new Container[count];
+            for (int i = 0; i < count; i++) {
+                ret.keys[i] = in.readLong();
+                ret.containers[i] = readContainer(in);
+            }
+            ret.size = count;
+            return ret;
+        } catch (IOException ex){
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void insertContainer(int idx, long key, Container container){
+        if(size == keys.length){
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, idx, keys, idx + 1, size - idx);
+        System.arraycopy(containers, idx, containers, idx + 1, size - idx);
+        keys[idx] = key;
+        containers[idx] = container;
+        size++;
+    }
+
+    private void removeContainer(int idx){
+        System.arraycopy(keys, idx + 1, keys, idx, size - idx - 1);
+        System.arraycopy(containers, idx + 1, containers, idx, size - idx - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private static Container readContainer(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        int cardinality = in.readInt();
+        if(type == ARRAY_CONTAINER){
+            ArrayContainer c = new ArrayContainer();
+            c.values = new char[cardinality];
+            for (int i = 0; i < cardinality; i++) c.values[i] = in.readChar();
+            c.cardinality = cardinality;
+            return c;
+        }
+        BitmapContainer c = new BitmapContainer();
+        for (int i = 0; i < c.words.length; i++) c.words[i] = in.readLong();
+        c.cardinality = cardinality;
+        return c;
+    }
+
+    private interface Container {
+        Container add(char value);
+        Container remove(char value);
+        boolean contains(char value);
+        int cardinality();
+        void writeTo(DataOutputStream out) throws IOException;
+    }
+
+    private static final class ArrayContainer implements Container {
+        private char[] values = new char[4];
+        private int cardinality = 0;
+
+        @Override
+        public Container add(char value) {
+            int idx = Arrays.binarySearch(values, 0, cardinality, value);
+            if(idx >= 0) return this;
+            if(cardinality >= ARRAY_MAX_SIZE){
+                return toBitmap().add(value);
+            }
+            idx = -idx - 1;
+            if(cardinality == values.length){
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX_SIZE, Math.max(4, values.length * 2)));
+            }
+            System.arraycopy(values, idx, values, idx + 1, cardinality - idx);
+            values[idx] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            int idx = Arrays.binarySearch(values, 0, cardinality, value);
+            if(idx < 0) return this;
+            System.arraycopy(values, idx + 1, values, idx, cardinality - idx - 1);
+            cardinality--;
+            return this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public void writeTo(DataOutputStream out) throws IOException {
+            out.writeByte(ARRAY_CONTAINER);
+            out.writeInt(cardinality);
+            for (int i = 0; i < cardinality; i++) out.writeChar(values[i]);
+        }
+
+        private BitmapContainer toBitmap(){
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) bitmap.add(values[i]);
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        private final long[] words = new long[1 << 10];
+        private int cardinality = 0;
+
+        @Override
+        public Container add(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before | (1L << value);
+            if(before != words[value >>> 6]) cardinality++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before & ~(1L << value);
+            if(before != words[value >>> 6]) cardinality--;
+            return (cardinality <= ARRAY_MAX_SIZE)? toArray() : this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public void writeTo(DataOutputStream out) throws IOException {
+            out.writeByte(BITMAP_CONTAINER);
+            out.writeInt(cardinality);
+            for (long word : words) out.writeLong(word);
+        }
+
+        private ArrayContainer toArray(){
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[cardinality];
+            int pos = 0;
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while(word != 0){
+                    array.values[pos++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            array.cardinality = cardinality;
+            return array;
+        }
+    }
+}
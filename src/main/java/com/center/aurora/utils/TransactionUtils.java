@@ -0,0 +1,24 @@
+package com.center.aurora.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtils {
+
+    /**
+     * 트랜잭션 안이면 커밋된 뒤에, 밖이면 바로 실행한다.
+     * 메모리 캐시/푸시가 롤백된 데이터를 보지 않도록 할 때 사용한다.
+     * */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.center.aurora.domain.user.User;
 import com.center.aurora.repository.user.FriendRepository;
 import com.center.aurora.repository.user.UserRepository;
 import com.center.aurora.security.TokenProvider;
+import com.center.aurora.security.UserPrincipalCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +40,9 @@ class UserControllerTest {
     @Autowired
     private TokenProvider tokenProvider;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
     private MockMvc mvc;
 
     @BeforeEach
@@ -218,5 +222,36 @@ class UserControllerTest {
 
     }
 
+    @Test
+    public void 인증된_유저는_캐시에서_가져오고_수정되면_다시_읽는다() throws Exception{
+        //given
+        User userA = User.builder()
+                .name("A")
+                .email("A@A.com")
+                .image(User.DEFAULT_IMAGE_URL)
+                .bio("A입니다.")
+                .role(Role.USER)
+                .build();
+
+        userRepository.save(userA);
+
+        String url = "http://localhost:"+ port + "/user";
+        String token = tokenProvider.createTokenByUserEntity(userA);
+        long hits = userPrincipalCache.getHitCount();
+        long misses = userPrincipalCache.getMissCount();
+
+        //when
+        mvc.perform(get(url).header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+        mvc.perform(get(url).header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+        mvc.perform(patch(url)
+                .param("name", "AA")
+                .param("isImageChanged", "false")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        mvc.perform(get(url).header("Authorization", "Bearer " + token)).andExpect(status().isOk());
 
-}
\ No newline at end of file
+        //then
+        assertThat(userPrincipalCache.getMissCount() - misses).isEqualTo(2);
+        assertThat(userPrincipalCache.getHitCount() - hits).isEqualTo(2);
+    }
+}
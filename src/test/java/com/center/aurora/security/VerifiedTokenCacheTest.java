@@ -0,0 +1,47 @@
+package com.center.aurora.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VerifiedTokenCacheTest {
+
+    @DisplayName("만료된 토큰은 캐시에 있어도 돌려주지 않는다")
+    @Test
+    void expiredToken(){
+        //given
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        TokenPrincipal live = new TokenPrincipal(1L, System.currentTimeMillis() + 60_000);
+        TokenPrincipal expired = new TokenPrincipal(2L, System.currentTimeMillis() - 1);
+
+        //when
+        cache.put("live", live);
+        cache.put("expired", expired);
+
+        //then
+        assertThat(cache.get("live")).isSameAs(live);
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.get("unknown")).isNull();
+        assertThat(cache.get(null)).isNull();
+    }
+
+    @DisplayName("가득 차면 가장 오래 쓰이지 않은 토큰부터 지운다")
+    @Test
+    void evictLeastRecentlyUsed(){
+        //given
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        cache.put("a", new TokenPrincipal(1L, expiresAt));
+        cache.put("b", new TokenPrincipal(2L, expiresAt));
+
+        //when
+        cache.get("a");
+        cache.put("c", new TokenPrincipal(3L, expiresAt));
+
+        //then
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isNotNull();
+    }
+}
@@ -0,0 +1,139 @@
+package com.center.aurora.service.chat;
+
+import com.center.aurora.domain.chat.ChatRoom;
+import com.center.aurora.domain.chat.Message;
+import com.center.aurora.domain.user.Role;
+import com.center.aurora.domain.user.User;
+import com.center.aurora.exception.UserAuthException;
+import com.center.aurora.repository.chat.ChatRoomRepository;
+import com.center.aurora.repository.chat.MessageRepository;
+import com.center.aurora.repository.user.UserRepository;
+import com.center.aurora.service.chat.dto.ChatRoomListDto;
+import com.center.aurora.service.chat.dto.MessageListDto;
+import com.center.aurora.service.chat.dto.MessagePageDto;
+import com.center.aurora.service.chat.dto.MessageRecvDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@SpringBootTest
+public class ChatRoomServiceTest {
+
+    @Autowired
+    private ChatRoomService chatRoomService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    @AfterEach
+    public void dbCleanUp() {
+        messageRepository.deleteAll();
+        chatRoomRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void 메시지_이력을_이전_메시지_id_기준으로_페이지씩_조회한다() throws Exception{
+        //given
+        User userA = userRepository.save(User.builder().name("A").email("a@a.com").image("a.png").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("b.png").role(Role.USER).bio("").build());
+        chatRoomService.createChatRoom(userA.getId(), userB.getId());
+        ChatRoom room = chatRoomRepository.findByParticipant1IdAndParticipant2Id(userA.getId(), userB.getId());
+        for (int i = 1; i <= 5; i++) {
+            messageRepository.save(Message.builder().sender((i % 2 == 0)? userB : userA).message("msg" + i).room(room).build());
+        }
+
+        //when
+        MessagePageDto latest = chatRoomService.findMessages(room.getId(), userA.getId(), null, 2);
+        MessagePageDto middle = chatRoomService.findMessages(room.getId(), userA.getId(), latest.getNextCursor(), 2);
+        MessagePageDto oldest = chatRoomService.findMessages(room.getId(), userA.getId(), middle.getNextCursor(), 2);
+        MessagePageDto opened = chatRoomService.findRoomById(room.getId(), userA.getId());
+
+        //then
+        assertThat(latest.getMessages()).extracting(x -> x.message).containsExactly("msg4", "msg5");
+        assertThat(middle.getMessages()).extracting(x -> x.message).containsExactly("msg2", "msg3");
+        assertThat(oldest.getMessages()).extracting(x -> x.message).containsExactly("msg1");
+        assertThat(oldest.getNextCursor()).isNull();
+
+        MessageListDto last = latest.getMessages().get(1);
+        assertThat(last.sender.id).isEqualTo(userA.getId());
+        assertThat(last.sender.name).isEqualTo("A");
+        assertThat(last.sender.avatar).isEqualTo("a.png");
+        assertThat(opened.getMessages()).hasSize(5);
+        assertThat(opened.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void 참여하지_않은_방의_메시지는_조회할_수_없다() throws Exception{
+        //given
+        User userA = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        User userC = userRepository.save(User.builder().name("C").email("c@c.com").image("").role(Role.USER).bio("").build());
+        chatRoomService.createChatRoom(userA.getId(), userB.getId());
+        ChatRoom room = chatRoomRepository.findByParticipant1IdAndParticipant2Id(userA.getId(), userB.getId());
+        messageRepository.save(Message.builder().sender(userA).message("msg").room(room).build());
+
+        //when
+        Throwable history = catchThrowable(() -> chatRoomService.findMessages(room.getId(), userC.getId(), null, 30));
+        Throwable opened = catchThrowable(() -> chatRoomService.findRoomById(room.getId(), userC.getId()));
+        MessagePageDto participant = chatRoomService.findMessages(room.getId(), userB.getId(), null, 30);
+
+        //then
+        assertThat(history).isInstanceOf(UserAuthException.class);
+        assertThat(opened).isInstanceOf(UserAuthException.class);
+        assertThat(participant.getMessages()).extracting(x -> x.message).containsExactly("msg");
+    }
+
+    @Test
+    public void 채팅방_목록은_마지막_메시지가_최신인_방부터_조회한다(){
+        //given
+        User userA = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        User userC = userRepository.save(User.builder().name("C").email("c@c.com").image("").role(Role.USER).bio("").build());
+        User userD = userRepository.save(User.builder().name("D").email("d@d.com").image("").role(Role.USER).bio("").build());
+        chatRoomService.createChatRoom(userA.getId(), userB.getId());
+        chatRoomService.createChatRoom(userA.getId(), userC.getId());
+        chatRoomService.createChatRoom(userD.getId(), userA.getId());
+        Long roomB = chatRoomRepository.findByParticipant1IdAndParticipant2Id(userA.getId(), userB.getId()).getId();
+        Long roomC = chatRoomRepository.findByParticipant1IdAndParticipant2Id(userA.getId(), userC.getId()).getId();
+        Long roomD = chatRoomRepository.findByParticipant1IdAndParticipant2Id(userD.getId(), userA.getId()).getId();
+
+        //when
+        messageService.saveMessage(message(roomB, "b1"), userA.getId());
+        messageService.saveMessage(message(roomC, "c1"), userC.getId());
+        messageService.saveMessage(message(roomB, "b".repeat(150)), userB.getId());
+        List<ChatRoomListDto> rooms = chatRoomService.findAllByUserId(userA.getId());
+
+        //then
+        assertThat(rooms).extracting(x -> x.roomId).containsExactly(roomB, roomC, roomD);
+        assertThat(rooms.get(0).lastMessage).isEqualTo("b".repeat(ChatRoom.PREVIEW_LENGTH));
+        assertThat(rooms).allMatch(x -> x.user != null);
+        assertThat(rooms.get(1).lastMessage).isEqualTo("c1");
+        assertThat(rooms.get(2).lastMessage).isEmpty();
+        assertThat(rooms.get(2).lastTimeStamp).isNull();
+    }
+
+    private MessageRecvDto message(Long roomId, String message){
+        MessageRecvDto ret = new MessageRecvDto();
+        ret.roomId = roomId;
+        ret.message = message;
+        return ret;
+    }
+}
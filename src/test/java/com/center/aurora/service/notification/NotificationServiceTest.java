@@ -0,0 +1,527 @@
+package com.center.aurora.service.notification;
+
+import com.center.aurora.config.AppProperties;
+import com.center.aurora.config.StompHandler;
+import com.center.aurora.controller.StompController;
+import com.center.aurora.domain.notification.Notification;
+import com.center.aurora.domain.notification.NotificationStatus;
+import com.center.aurora.domain.notification.NotificationType;
+import com.center.aurora.domain.user.Role;
+import com.center.aurora.domain.user.User;
+import com.center.aurora.domain.user.friend.FriendStatus;
+import com.center.aurora.exception.UserAuthException;
+import com.center.aurora.repository.NotificationRepository;
+import com.center.aurora.repository.user.UserRepository;
+import com.center.aurora.security.TokenPrincipal;
+import com.center.aurora.service.user.FriendService;
+import com.center.aurora.service.notification.dto.NotificationCountDto;
+import com.center.aurora.service.notification.dto.NotificationListDto;
+import com.center.aurora.service.notification.dto.NotificationPageDto;
+import com.center.aurora.service.notification.dto.NotificationRecvDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@SpringBootTest
+public class NotificationServiceTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UnreadNotificationCounter unreadNotificationCounter;
+
+    @Autowired
+    private NotificationPurgeJob notificationPurgeJob;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    private NotificationWriteQueue notificationWriteQueue;
+
+    @Autowired
+    private NotificationBadgePublisher notificationBadgePublisher;
+
+    @Autowired
+    private NotificationDeduplicator notificationDeduplicator;
+
+    @Autowired
+    private FriendService friendService;
+
+    @Autowired
+    private StompController stompController;
+
+    @Autowired
+    private StompHandler stompHandler;
+
+    @Autowired
+    @Qualifier("brokerChannel")
+    private SubscribableChannel brokerChannel;
+
+    @BeforeEach
+    @AfterEach
+    public void dbCleanUp() {
+        notificationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @DisplayName("같은 게시물 좋아요 알림은 하나로 합쳐진다")
+    @Test
+    void aggregatePostNotification(){
+        //given
+        User owner = User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build();
+        User userB = User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build();
+        User userC = User.builder().name("C").email("c@c.com").image("").role(Role.USER).bio("").build();
+        userRepository.save(owner);
+        userRepository.save(userB);
+        userRepository.save(userC);
+
+        //when
+        notificationService.saveNotification(postNotification(userB, owner, 1L));
+        notificationService.saveNotification(postNotification(userC, owner, 1L));
+        notificationService.saveNotification(postNotification(userB, owner, 1L));
+        notificationService.saveNotification(postNotification(userB, owner, 2L));
+
+        //then
+        List<NotificationListDto> notifications = notificationService.getAllNormalNotification(owner.getId());
+        assertThat(notifications.size()).isEqualTo(2);
+
+        NotificationListDto aggregate = notifications.stream().filter(x -> x.getTargetId() == 1L).findFirst().get();
+        assertThat(aggregate.getActorCount()).isEqualTo(2);
+        assertThat(aggregate.getRecentActorIds()).containsExactly(userB.getId(), userC.getId());
+    }
+
+    @DisplayName("읽은 게시물 알림에는 합치지 않고 새 알림으로 모으며 모으는 알림은 대상마다 하나뿐이다")
+    @Test
+    void aggregateAfterRead(){
+        //given
+        User owner = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        User userC = userRepository.save(User.builder().name("C").email("c@c.com").image("").role(Role.USER).bio("").build());
+        User userD = userRepository.save(User.builder().name("D").email("d@d.com").image("").role(Role.USER).bio("").build());
+        notificationService.saveNotification(postNotification(userB, owner, 1L));
+        notificationService.updateAllNotificationStatus(owner.getId(), NotificationType.POST, null);
+
+        //when
+        notificationService.saveNotification(postNotification(userC, owner, 1L));
+        notificationService.saveNotification(postNotification(userD, owner, 1L));
+        Notification another = postNotification(userB, owner, 1L).toEntity(userB, owner);
+        another.openAggregate();
+        Throwable duplicated = catchThrowable(() -> notificationRepository.saveAndFlush(another));
+
+        //then
+        List<NotificationListDto> notifications = notificationService.getAllNormalNotification(owner.getId());
+        assertThat(notifications).hasSize(2);
+        assertThat(notifications.get(0).getActorCount()).isEqualTo(2);
+        assertThat(notifications.get(0).getRecentActorIds()).containsExactly(userD.getId(), userC.getId());
+        assertThat(notifications.get(1).getActorCount()).isEqualTo(1);
+        assertThat(duplicated).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @DisplayName("큐에 넣은 알림은 작성 스레드가 모아서 저장하고 잘못된 알림만 빠진다")
+    @Test
+    void writeQueueNotifications() throws Exception{
+        //given
+        User owner = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        String topic = "/sub/notification/" + owner.getId();
+        List<String> pushes = new CopyOnWriteArrayList<>();
+        MessageHandler handler = message -> {
+            if(topic.equals(SimpMessageHeaderAccessor.getDestination(message.getHeaders())))
+                pushes.add(new String((byte[]) message.getPayload(), StandardCharsets.UTF_8));
+        };
+        brokerChannel.subscribe(handler);
+
+        //when
+        for (int i = 0; i < 20; i++) {
+            notificationWriteQueue.enqueue(NotificationRecvDto.builder()
+                    .type(NotificationType.FRIEND_ACCEPT.name()).from(userB.getId()).to(owner.getId()).message("친구 수락").build());
+        }
+        notificationWriteQueue.enqueue(NotificationRecvDto.builder()
+                .type(NotificationType.FRIEND_ACCEPT.name()).from(-1L).to(owner.getId()).message("없는 유저").build());
+        notificationWriteQueue.enqueue(postNotification(userB, owner, 1L));
+        notificationWriteQueue.enqueue(postNotification(userB, owner, 1L));
+        boolean drained = notificationWriteQueue.awaitEmpty(10_000);
+        brokerChannel.unsubscribe(handler);
+
+        //then
+        assertThat(drained).isTrue();
+        assertThat(notificationRepository.count()).isEqualTo(21);
+        assertThat(notificationService.getAllNotificationCount(owner.getId()).getNormal()).isEqualTo(21);
+        // 푸시는 커밋된 알림만 나간다. (없는 유저가 섞인 배치는 롤백되고 하나씩 다시 저장된 것만 푸시)
+        assertThat(pushes.stream().filter(x -> x.contains("\"FRIEND_ACCEPT\""))).hasSize(20);
+    }
+
+    @DisplayName("STOMP 로 받은 알림의 보낸 유저가 세션 주체와 다르면 거절한다")
+    @Test
+    void rejectSpoofedSender() throws Exception{
+        //given
+        User owner = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        User userC = userRepository.save(User.builder().name("C").email("c@c.com").image("").role(Role.USER).bio("").build());
+        NotificationRecvDto spoofed = NotificationRecvDto.builder()
+                .type(NotificationType.FRIEND_REQUEST.name()).from(userB.getId()).to(owner.getId()).message("친구 요청").build();
+
+        //when
+        Throwable thrown = catchThrowable(() -> stompController.notification(spoofed, new TokenPrincipal(userC.getId(), Long.MAX_VALUE)));
+        notificationWriteQueue.awaitEmpty(10_000);
+
+        //then
+        assertThat(thrown).isInstanceOf(UserAuthException.class);
+        assertThat(notificationRepository.count()).isEqualTo(0);
+        assertThat(friendService.getFriendStatuses(userB.getId(), List.of(owner.getId())).get(owner.getId())).isEqualTo(FriendStatus.NOT_FRIEND);
+    }
+
+    @DisplayName("읽지 않은 알림 수는 저장/읽음 처리에 맞춰 메모리에서 바로 바뀐다")
+    @Test
+    void unreadNotificationCount(){
+        //given
+        User owner = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        NotificationCountDto before = notificationService.getAllNotificationCount(owner.getId());
+
+        //when
+        notificationService.saveNotification(postNotification(userB, owner, 1L));
+        notificationService.saveNotification(postNotification(userB, owner, 1L));
+        notificationService.saveNotification(postNotification(userB, owner, 2L));
+        notificationService.saveNotification(NotificationRecvDto.builder()
+                .type(NotificationType.FRIEND_REQUEST.name()).from(userB.getId()).to(owner.getId()).message("친구 요청").build());
+        NotificationCountDto afterSave = notificationService.getAllNotificationCount(owner.getId());
+
+        Long postId = notificationService.getAllNormalNotification(owner.getId()).get(0).getId();
+        notificationService.updateNotificationStatus(postId);
+        notificationService.updateNotificationStatus(postId);
+        NotificationCountDto afterRead = notificationService.getAllNotificationCount(owner.getId());
+
+        //then
+        assertThat(before.getNormal()).isEqualTo(0);
+        assertThat(afterSave.getNormal()).isEqualTo(2);
+        assertThat(afterSave.getFriend()).isEqualTo(1);
+        assertThat(afterRead.getNormal()).isEqualTo(1);
+
+        unreadNotificationCounter.reconcile();
+        NotificationCountDto reconciled = notificationService.getAllNotificationCount(owner.getId());
+        assertThat(reconciled.getNormal()).isEqualTo(afterRead.getNormal());
+        assertThat(reconciled.getFriend()).isEqualTo(afterRead.getFriend());
+    }
+
+    @DisplayName("배지 구독 시 전체 개수를 보내고 이후에는 모아진 증감만 보낸다")
+    @Test
+    void badgeFrames() throws Exception{
+        //given
+        User owner = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        notificationService.saveNotification(postNotification(userB, owner, 1L));
+
+        String topic = NotificationBadgePublisher.topicOf(owner.getId());
+        List<Map<String, Object>> frames = new CopyOnWriteArrayList<>();
+        ObjectMapper objectMapper = new ObjectMapper();
+        MessageHandler handler = message -> {
+            if(!topic.equals(SimpMessageHeaderAccessor.getDestination(message.getHeaders()))) return;
+            try {
+                frames.add(objectMapper.readValue((byte[]) message.getPayload(), new TypeReference<Map<String, Object>>() {}));
+            } catch (IOException ex){
+                throw new IllegalStateException(ex);
+            }
+        };
+        brokerChannel.subscribe(handler);
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId("badge-session");
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(topic);
+        accessor.setUser(new TokenPrincipal(owner.getId(), Long.MAX_VALUE));
+        Message<byte[]> subscribe = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        try {
+            //when
+            notificationBadgePublisher.onSubscribe(new SessionSubscribeEvent(this, subscribe, accessor.getUser()));
+            awaitFrames(frames, 1);
+
+            notificationService.saveNotification(postNotification(userB, owner, 2L));
+            notificationService.saveNotification(NotificationRecvDto.builder()
+                    .type(NotificationType.FRIEND_ACCEPT.name()).from(userB.getId()).to(owner.getId()).message("친구 수락").build());
+            notificationService.updateAllNotificationStatus(owner.getId(), NotificationType.POST, null);
+            awaitFrames(frames, 2);
+            Thread.sleep(NotificationBadgePublisher.WINDOW_MSEC * 3);
+
+            //then
+            Map<String, Object> sync = frames.get(0);
+            assertThat(sync.get("sync")).isEqualTo(true);
+            assertThat(((Map<?, ?>) sync.get("counts")).get("POST")).isEqualTo(1);
+
+            Map<String, Long> sum = new HashMap<>();
+            for (Map<String, Object> frame : frames.subList(1, frames.size())) {
+                assertThat(frame.get("sync")).isEqualTo(false);
+                ((Map<?, ?>) frame.get("counts")).forEach((type, delta) -> sum.merge((String) type, ((Number) delta).longValue(), Long::sum));
+            }
+            assertThat(sum.getOrDefault("POST", 0L)).isEqualTo(-1L);
+            assertThat(sum.get("FRIEND_ACCEPT")).isEqualTo(1L);
+            assertThat(frames.size() - 1).isLessThanOrEqualTo(4);
+        } finally {
+            brokerChannel.unsubscribe(handler);
+            notificationBadgePublisher.onDisconnect(new SessionDisconnectEvent(this, subscribe, "badge-session", CloseStatus.NORMAL));
+        }
+    }
+
+    @DisplayName("다른 유저의 알림과 배지는 구독할 수 없다")
+    @Test
+    void rejectForeignNotificationSubscribe(){
+        //given
+        Long ownerId = 1L;
+        TokenPrincipal owner = new TokenPrincipal(ownerId, Long.MAX_VALUE);
+        TokenPrincipal other = new TokenPrincipal(2L, Long.MAX_VALUE);
+
+        //when
+        Throwable foreignBadge = catchThrowable(() -> stompHandler.preSend(subscribeFrame(NotificationBadgePublisher.topicOf(ownerId), other), null));
+        Throwable foreignNotification = catchThrowable(() -> stompHandler.preSend(subscribeFrame("/sub/notification/" + ownerId, other), null));
+        Throwable anonymous = catchThrowable(() -> stompHandler.preSend(subscribeFrame(NotificationBadgePublisher.topicOf(ownerId), null), null));
+        Throwable ownBadge = catchThrowable(() -> stompHandler.preSend(subscribeFrame(NotificationBadgePublisher.topicOf(ownerId), owner), null));
+        Throwable otherTopic = catchThrowable(() -> stompHandler.preSend(subscribeFrame("/sub/chat/room/1", null), null));
+
+        //then
+        assertThat(foreignBadge).isInstanceOf(MessageDeliveryException.class);
+        assertThat(foreignNotification).isInstanceOf(MessageDeliveryException.class);
+        assertThat(anonymous).isInstanceOf(MessageDeliveryException.class);
+        assertThat(ownBadge).isNull();
+        assertThat(otherTopic).isNull();
+    }
+
+    @DisplayName("같은 친구 요청이 반복되어도 관계와 알림은 한번만 생기고 이미 친구면 바뀌지 않는다")
+    @Test
+    void idempotentFriendRequest(){
+        //given
+        User owner = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        User userC = userRepository.save(User.builder().name("C").email("c@c.com").image("").role(Role.USER).bio("").build());
+        NotificationRecvDto request = NotificationRecvDto.builder()
+                .type(NotificationType.FRIEND_REQUEST.name()).from(userB.getId()).to(owner.getId()).message("친구 요청").build();
+        friendService.addFriend(userC.getId(), owner.getId());
+
+        //when
+        boolean first = notificationDeduplicator.firstSeen(request);
+        boolean retried = notificationDeduplicator.firstSeen(request);
+        notificationService.saveNotification(request);
+        notificationService.saveNotification(request);
+        notificationService.saveNotifications(List.of(request, request));
+        notificationService.saveNotification(NotificationRecvDto.builder()
+                .type(NotificationType.FRIEND_REQUEST.name()).from(userC.getId()).to(owner.getId()).message("친구 요청").build());
+
+        //then
+        assertThat(first).isTrue();
+        assertThat(retried).isFalse();
+        assertThat(notificationService.getAllNotificationCount(owner.getId()).getFriend()).isEqualTo(1);
+        assertThat(notificationRepository.findAllByRecipientIdAndType(owner.getId(), NotificationType.FRIEND_REQUEST)).hasSize(1);
+        Map<Long, FriendStatus> statuses = friendService.getFriendStatuses(owner.getId(), List.of(userB.getId(), userC.getId()));
+        assertThat(statuses.get(userB.getId())).isEqualTo(FriendStatus.ONGOING);
+        assertThat(statuses.get(userC.getId())).isEqualTo(FriendStatus.FRIEND);
+        assertThat(friendService.getFriendStatuses(userB.getId(), List.of(owner.getId())).get(owner.getId())).isEqualTo(FriendStatus.ONGOING);
+    }
+
+    @DisplayName("읽지 않은 같은 친구 요청 알림은 유니크 키로 하나뿐이고 읽으면 키가 비워진다")
+    @Test
+    void friendRequestDedupKey(){
+        //given
+        User owner = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        notificationService.saveNotification(NotificationRecvDto.builder()
+                .type(NotificationType.FRIEND_REQUEST.name()).from(userB.getId()).to(owner.getId()).message("친구 요청").build());
+        Notification concurrent = Notification.builder().writer(userB).recipient(owner).type(NotificationType.FRIEND_REQUEST)
+                .message("친구 요청").status(NotificationStatus.NOT_READ).build();
+        concurrent.openDedup();
+
+        //when
+        Throwable duplicated = catchThrowable(() -> notificationRepository.saveAndFlush(concurrent));
+        notificationService.updateAllNotificationStatus(owner.getId(), NotificationType.FRIEND_REQUEST, null);
+
+        //then
+        assertThat(duplicated).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(notificationRepository.findAllByRecipientIdAndType(owner.getId(), NotificationType.FRIEND_REQUEST))
+                .hasSize(1)
+                .allMatch(x -> x.getStatus() == NotificationStatus.READ && x.getDedupKey() == null);
+    }
+
+    @DisplayName("알림함은 최신순으로 cursor 다음 페이지를 읽는다")
+    @Test
+    void notificationPage(){
+        //given
+        User owner = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("b.png").role(Role.USER).bio("").build());
+        for (long postId = 1; postId <= 3; postId++) {
+            notificationService.saveNotification(postNotification(userB, owner, postId));
+        }
+        notificationService.saveNotification(NotificationRecvDto.builder()
+                .type(NotificationType.FRIEND_ACCEPT.name()).from(userB.getId()).to(owner.getId()).message("친구 수락").build());
+
+        //when
+        NotificationPageDto<NotificationListDto> first = notificationService.getNormalNotificationPage(owner.getId(), null, 3);
+        NotificationPageDto<NotificationListDto> second = notificationService.getNormalNotificationPage(owner.getId(), first.getNextCursor(), 3);
+
+        //then
+        assertThat(first.getNotifications()).extracting(NotificationListDto::getType).containsExactly("FRIEND_ACCEPT", "POST", "POST");
+        assertThat(first.getNotifications()).extracting(NotificationListDto::getTargetId).containsExactly(null, 3L, 2L);
+        assertThat(first.getNotifications()).allMatch(x -> x.getSender() != null);
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThat(second.getNotifications()).extracting(NotificationListDto::getTargetId).containsExactly(1L);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @DisplayName("페이지 없이 조회하면 최신 MAX_PAGE_SIZE 개만 읽는다")
+    @Test
+    void notificationListIsBounded(){
+        //given
+        User owner = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        List<NotificationRecvDto> accepts = new ArrayList<>();
+        for (int i = 0; i <= NotificationService.MAX_PAGE_SIZE; i++) {
+            accepts.add(NotificationRecvDto.builder()
+                    .type(NotificationType.FRIEND_ACCEPT.name()).from(userB.getId()).to(owner.getId()).message("친구 수락").build());
+        }
+        notificationService.saveNotifications(accepts);
+
+        //when
+        List<NotificationListDto> notifications = notificationService.getAllNormalNotification(owner.getId());
+
+        //then
+        assertThat(notifications).hasSize(NotificationService.MAX_PAGE_SIZE);
+        assertThat(notifications.get(0).getId()).isGreaterThan(notifications.get(NotificationService.MAX_PAGE_SIZE - 1).getId());
+    }
+
+    @DisplayName("일괄 읽음 처리는 UPDATE 한번으로 하고 읽지 않은 알림 수도 같이 줄어든다")
+    @Test
+    void readAllNotifications(){
+        //given
+        User owner = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        notificationService.getAllNotificationCount(owner.getId());
+        for (long postId = 1; postId <= 3; postId++) {
+            notificationService.saveNotification(postNotification(userB, owner, postId));
+        }
+        for (int i = 0; i < 2; i++) {
+            notificationService.saveNotification(NotificationRecvDto.builder()
+                    .type(NotificationType.CHATTING.name()).from(userB.getId()).to(owner.getId()).targetId(100L).message("안녕").build());
+        }
+        notificationService.saveNotification(NotificationRecvDto.builder()
+                .type(NotificationType.FRIEND_REQUEST.name()).from(userB.getId()).to(owner.getId()).message("친구 요청").build());
+        Long oldestPostId = notificationService.getAllNormalNotification(owner.getId()).get(2).getId();
+
+        //when
+        int readUpToOldest = notificationService.updateAllNotificationStatus(owner.getId(), NotificationType.POST, oldestPostId);
+        notificationService.updateAllChattingNotificationStatus(100L);
+        NotificationCountDto partial = notificationService.getAllNotificationCount(owner.getId());
+        int readAll = notificationService.updateAllNotificationStatus(owner.getId(), null, null);
+        NotificationCountDto none = notificationService.getAllNotificationCount(owner.getId());
+
+        //then
+        assertThat(readUpToOldest).isEqualTo(1);
+        assertThat(partial.getNormal()).isEqualTo(2);
+        assertThat(partial.getChatting()).isEqualTo(0);
+        assertThat(partial.getFriend()).isEqualTo(1);
+        assertThat(readAll).isEqualTo(3);
+        assertThat(none.getNormal() + none.getChatting() + none.getFriend()).isEqualTo(0);
+        assertThat(notificationService.getAllNormalNotification(owner.getId())).allMatch(NotificationListDto::getIsRead);
+    }
+
+    @DisplayName("보관 기간이 지난 알림은 배치로 나눠 지우고 읽지 않은 알림 수도 맞춘다")
+    @Test
+    void purgeExpiredNotifications() throws Exception{
+        //given
+        User owner = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        notificationService.getAllNotificationCount(owner.getId());
+        for (long postId = 1; postId <= 5; postId++) {
+            notificationService.saveNotification(postNotification(userB, owner, postId));
+        }
+        notificationService.updateNotificationStatus(notificationService.getAllNormalNotification(owner.getId()).get(0).getId());
+        Thread.sleep(10);
+
+        AppProperties.Notification config = appProperties.getNotification();
+        AppProperties.Retention retention = config.getDefaultRetention();
+        long readTtl = retention.getReadTtlMsec(), unreadTtl = retention.getUnreadTtlMsec();
+        int batchSize = config.getPurgeBatchSize();
+        long pause = config.getPurgePauseMsec();
+        try {
+            config.setPurgeBatchSize(2);
+            config.setPurgePauseMsec(0);
+            retention.setReadTtlMsec(1);
+            retention.setUnreadTtlMsec(0);
+
+            //when
+            long readPurged = notificationPurgeJob.purge();
+            retention.setUnreadTtlMsec(1);
+            long unreadPurged = notificationPurgeJob.purge();
+
+            //then
+            assertThat(readPurged).isEqualTo(1);
+            assertThat(unreadPurged).isEqualTo(4);
+            assertThat(notificationRepository.count()).isEqualTo(0);
+            assertThat(notificationService.getAllNotificationCount(owner.getId()).getNormal()).isEqualTo(0);
+        } finally {
+            retention.setReadTtlMsec(readTtl);
+            retention.setUnreadTtlMsec(unreadTtl);
+            config.setPurgeBatchSize(batchSize);
+            config.setPurgePauseMsec(pause);
+        }
+    }
+
+    private void awaitFrames(List<?> frames, int count) throws InterruptedException{
+        long deadline = System.currentTimeMillis() + 5_000;
+        while(frames.size() < count && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertThat(frames.size()).isGreaterThanOrEqualTo(count);
+    }
+
+    private Message<byte[]> subscribeFrame(String destination, TokenPrincipal user){
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId("subscribe-session");
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private NotificationRecvDto postNotification(User from, User to, Long postId){
+        return NotificationRecvDto.builder()
+                .type(NotificationType.POST.name())
+                .from(from.getId())
+                .to(to.getId())
+                .targetId(postId)
+                .message(from.getName() + "님이 게시물을 좋아합니다.")
+                .build();
+    }
+}
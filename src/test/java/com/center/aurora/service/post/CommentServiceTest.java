@@ -1,11 +1,13 @@
 package com.center.aurora.service.post;
 
+import com.center.aurora.domain.post.Comment;
 import com.center.aurora.domain.post.Mood;
 import com.center.aurora.domain.user.Role;
 import com.center.aurora.domain.user.User;
 import com.center.aurora.repository.user.UserRepository;
 import com.center.aurora.service.post.dto.CommentDto;
 import com.center.aurora.service.post.dto.CommentResponse;
+import com.center.aurora.service.post.dto.CommentThreadResponse;
 import com.center.aurora.service.post.CommentService;
 import com.center.aurora.service.post.PostService;
 import com.center.aurora.service.post.dto.PostDto;
@@ -18,6 +20,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
@@ -40,6 +43,9 @@ public class CommentServiceTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     public void dbCleanUp() {
         userRepository.deleteAll();
@@ -192,4 +198,100 @@ public class CommentServiceTest {
     }
 
 
+    @DisplayName("답글 스레드 조회")
+    @Test
+    void getCommentThreads() throws IOException {
+        //given
+        User userA = User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build();
+        User userB = User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build();
+        userRepository.save(userA);
+        userRepository.save(userB);
+
+        PostDto postDto = PostDto.builder().mood(Mood.sun).content("content1").build();
+        postService.createPost(userA.getId(), postDto);
+        Pageable pageable = PageRequest.of(0, 5, Sort.Direction.DESC, "id");
+        Long postId = postService.getPost(userA.getId(),pageable).get(0).getId();
+
+        commentService.createComment(userA.getId(), postId, CommentDto.builder().content("root1").build());
+        commentService.createComment(userA.getId(), postId, CommentDto.builder().content("root2").build());
+        List<CommentResponse> roots = (List<CommentResponse>) commentService.getComment(postId).get("comments");
+        Long root1 = roots.get(1).getId();
+
+        commentService.createComment(userB.getId(), postId, CommentDto.builder().content("reply1").parentId(root1).build());
+        commentService.createComment(userB.getId(), postId, CommentDto.builder().content("reply2").parentId(root1).build());
+        commentService.createComment(userB.getId(), postId, CommentDto.builder().content("reply3").parentId(root1).build());
+
+        //when
+        List<CommentThreadResponse> threads = commentService.getCommentThreads(postId, PageRequest.of(0, 10), 2);
+
+        //then
+        assertThat(threads.size()).isEqualTo(2);
+        assertThat(threads.get(0).getContent()).isEqualTo("root2");
+        assertThat(threads.get(0).getReplies().size()).isEqualTo(0);
+        assertThat(threads.get(1).getReplyCnt()).isEqualTo(3);
+        assertThat(threads.get(1).getReplies().size()).isEqualTo(2);
+        assertThat(threads.get(1).getReplies().get(0).getContent()).isEqualTo("reply1");
+        assertThat(threads.get(1).getReplies().get(0).getAuth().getId()).isEqualTo(userB.getId());
+    }
+
+    @DisplayName("댓글 삭제 시 답글도 함께 삭제")
+    @Test
+    void deleteCommentSubtree() throws IOException {
+        //given
+        User userA = User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build();
+        userRepository.save(userA);
+
+        PostDto postDto = PostDto.builder().mood(Mood.sun).content("content1").build();
+        postService.createPost(userA.getId(), postDto);
+        Pageable pageable = PageRequest.of(0, 5, Sort.Direction.DESC, "id");
+        Long postId = postService.getPost(userA.getId(),pageable).get(0).getId();
+
+        commentService.createComment(userA.getId(), postId, CommentDto.builder().content("root1").build());
+        commentService.createComment(userA.getId(), postId, CommentDto.builder().content("root2").build());
+        List<CommentResponse> roots = (List<CommentResponse>) commentService.getComment(postId).get("comments");
+        Long root1 = roots.get(1).getId();
+
+        commentService.createComment(userA.getId(), postId, CommentDto.builder().content("reply1").parentId(root1).build());
+        List<CommentResponse> comments = (List<CommentResponse>) commentService.getComment(postId).get("comments");
+        commentService.createComment(userA.getId(), postId, CommentDto.builder().content("reply1-1").parentId(comments.get(0).getId()).build());
+
+        //when
+        commentService.deleteComment(userA.getId(), root1);
+
+        //then
+        List<CommentResponse> result = (List<CommentResponse>) commentService.getComment(postId).get("comments");
+        assertThat(result.size()).isEqualTo(1);
+        assertThat(result.get(0).getContent()).isEqualTo("root2");
+    }
+
+    @DisplayName("path 가 없는 예전 댓글도 루트로 조회되고 답글을 달면 path 가 채워진다")
+    @Test
+    void legacyCommentWithoutPath() throws IOException {
+        //given
+        User userA = User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build();
+        userRepository.save(userA);
+
+        PostDto postDto = PostDto.builder().mood(Mood.sun).content("content1").build();
+        postService.createPost(userA.getId(), postDto);
+        Pageable pageable = PageRequest.of(0, 5, Sort.Direction.DESC, "id");
+        Long postId = postService.getPost(userA.getId(),pageable, null).get(0).getId();
+
+        commentService.createComment(userA.getId(), postId, CommentDto.builder().content("legacy").build());
+        commentService.createComment(userA.getId(), postId, CommentDto.builder().content("legacy2").build());
+        jdbcTemplate.update("update comment set path = null where post_id = ?", postId);
+        List<CommentResponse> roots = (List<CommentResponse>) commentService.getComment(postId).get("comments");
+
+        //when
+        List<CommentThreadResponse> before = commentService.getCommentThreads(postId, PageRequest.of(0, 10), 2);
+        commentService.createComment(userA.getId(), postId, CommentDto.builder().content("reply").parentId(roots.get(1).getId()).build());
+        commentService.backfillPaths();
+        List<CommentThreadResponse> after = commentService.getCommentThreads(postId, PageRequest.of(0, 10), 2);
+
+        //then
+        assertThat(before).extracting(CommentThreadResponse::getReplyCnt).containsExactly(0, 0);
+        assertThat(after).extracting(CommentThreadResponse::getContent).containsExactly("legacy2", "legacy");
+        assertThat(after.get(1).getReplies()).extracting(CommentResponse::getContent).containsExactly("reply");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from comment where post_id = ? and path is null", Integer.class, postId)).isEqualTo(0);
+        assertThat(Comment.pathSegment(Long.MAX_VALUE)).hasSize(Comment.PATH_SEGMENT_LENGTH);
+    }
 }
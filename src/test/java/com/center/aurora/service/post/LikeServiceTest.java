@@ -6,6 +6,7 @@ import com.center.aurora.domain.user.User;
 import com.center.aurora.repository.user.UserRepository;
 import com.center.aurora.service.post.LikeService;
 import com.center.aurora.service.post.PostService;
+import com.center.aurora.service.post.dto.LikeToggleDto;
 import com.center.aurora.service.post.dto.PostDto;
 import com.center.aurora.service.post.dto.PostResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +19,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -58,6 +60,8 @@ public class LikeServiceTest {
         //then
         posts = postService.getPost(userA.getId(),pageable);
         assertThat(posts.get(0).getLikeCnt()).isEqualTo(1);
+        posts = postService.getPost(userA.getId(),pageable, userA.getId());
+        assertThat(posts.get(0).isLikedByMe()).isTrue();
     }
 
     @DisplayName("좋아요 삭제")
@@ -80,8 +84,62 @@ public class LikeServiceTest {
         //when
         likeService.deleteLike(userA.getId(), posts.get(0).getId());
 
+        //then
+        posts = postService.getPost(userA.getId(),pageable, userA.getId());
+        assertThat(posts.get(0).getLikeCnt()).isEqualTo(0);
+        assertThat(posts.get(0).isLikedByMe()).isFalse();
+    }
+
+    @DisplayName("좋아요 중복 요청은 한번만 반영")
+    @Test
+    void createLikeTwice() throws IOException {
+        //given
+        User userA = User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build();
+        userRepository.save(userA);
+
+        PostDto postDto = PostDto.builder().mood(Mood.sun).content("content1").build();
+        postService.createPost(userA.getId(), postDto);
+
+        Pageable pageable = PageRequest.of(0, 5, Sort.Direction.DESC, "id");
+        List<PostResponse> posts = postService.getPost(userA.getId(),pageable);
+
+        //when
+        likeService.createLike(userA.getId(), posts.get(0).getId());
+        likeService.createLike(userA.getId(), posts.get(0).getId());
+        likeService.deleteLike(userA.getId(), posts.get(0).getId());
+        likeService.deleteLike(userA.getId(), posts.get(0).getId());
+        likeService.createLike(userA.getId(), posts.get(0).getId());
+
+        //then
+        posts = postService.getPost(userA.getId(),pageable);
+        assertThat(posts.get(0).getLikeCnt()).isEqualTo(1);
+    }
+
+    @DisplayName("좋아요 일괄 반영")
+    @Test
+    void applyLikes() throws IOException {
+        //given
+        User userA = User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build();
+        userRepository.save(userA);
+
+        postService.createPost(userA.getId(), PostDto.builder().mood(Mood.sun).content("content1").build());
+        postService.createPost(userA.getId(), PostDto.builder().mood(Mood.rain).content("content2").build());
+
+        Pageable pageable = PageRequest.of(0, 5, Sort.Direction.DESC, "id");
+        List<PostResponse> posts = postService.getPost(userA.getId(),pageable);
+        Long post2 = posts.get(0).getId(), post1 = posts.get(1).getId();
+        likeService.createLike(userA.getId(), post2);
+
+        //when
+        likeService.applyLikes(userA.getId(), Arrays.asList(
+                LikeToggleDto.builder().postId(post1).liked(true).build(),
+                LikeToggleDto.builder().postId(post2).liked(true).build(),
+                LikeToggleDto.builder().postId(post2).liked(false).build()
+        ));
+
         //then
         posts = postService.getPost(userA.getId(),pageable);
         assertThat(posts.get(0).getLikeCnt()).isEqualTo(0);
+        assertThat(posts.get(1).getLikeCnt()).isEqualTo(1);
     }
 }
@@ -0,0 +1,132 @@
+package com.center.aurora.service.post;
+
+import com.center.aurora.domain.post.Mood;
+import com.center.aurora.domain.user.Role;
+import com.center.aurora.domain.user.User;
+import com.center.aurora.repository.user.UserRepository;
+import com.center.aurora.service.post.dto.CommentDto;
+import com.center.aurora.service.post.dto.PostDto;
+import com.center.aurora.service.post.dto.PostResponse;
+import com.center.aurora.service.post.realtime.PostSubscriptionRegistry;
+import com.center.aurora.service.post.realtime.PostUpdateCoalescer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class PostUpdateCoalescerTest {
+
+    @Autowired
+    private PostUpdateCoalescer postUpdateCoalescer;
+
+    @Autowired
+    private PostSubscriptionRegistry postSubscriptionRegistry;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("brokerChannel")
+    private SubscribableChannel brokerChannel;
+
+    @BeforeEach
+    public void dbCleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @DisplayName("한 창 안의 여러 변경은 구독 중인 게시물에 한 프레임으로 나가고 구독하지 않은 게시물은 보내지 않는다")
+    @Test
+    void coalesceWatchedPosts() throws Exception {
+        //given
+        User userA = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        postService.createPost(userA.getId(), PostDto.builder().mood(Mood.sun).content("watched").build());
+        postService.createPost(userA.getId(), PostDto.builder().mood(Mood.sun).content("unwatched").build());
+        List<PostResponse> posts = postService.getPost(userA.getId(), PageRequest.of(0, 5, Sort.Direction.DESC, "id"), null);
+        Long watched = posts.get(1).getId(), unwatched = posts.get(0).getId();
+
+        Map<String, List<Map<String, Object>>> frames = Map.of(
+                PostSubscriptionRegistry.POST_TOPIC_PREFIX + watched, new CopyOnWriteArrayList<>(),
+                PostSubscriptionRegistry.POST_TOPIC_PREFIX + unwatched, new CopyOnWriteArrayList<>());
+        ObjectMapper objectMapper = new ObjectMapper();
+        MessageHandler handler = message -> {
+            List<Map<String, Object>> received = frames.get(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+            if(received == null) return;
+            try {
+                received.add(objectMapper.readValue((byte[]) message.getPayload(), new TypeReference<Map<String, Object>>() {}));
+            } catch (IOException ex){
+                throw new IllegalStateException(ex);
+            }
+        };
+        brokerChannel.subscribe(handler);
+        Message<byte[]> subscribe = subscribeFrame(PostSubscriptionRegistry.POST_TOPIC_PREFIX + watched);
+
+        try {
+            //when
+            postSubscriptionRegistry.onSubscribe(new SessionSubscribeEvent(this, subscribe));
+            transactionTemplate.executeWithoutResult(status -> {
+                commentService.createComment(userB.getId(), watched, CommentDto.builder().content("c1").build());
+                commentService.createComment(userB.getId(), watched, CommentDto.builder().content("c2").build());
+                likeService.createLike(userB.getId(), watched);
+                commentService.createComment(userB.getId(), unwatched, CommentDto.builder().content("c3").build());
+                likeService.createLike(userB.getId(), unwatched);
+            });
+            Thread.sleep(PostUpdateCoalescer.WINDOW_MSEC * 4);
+
+            //then
+            List<Map<String, Object>> watchedFrames = frames.get(PostSubscriptionRegistry.POST_TOPIC_PREFIX + watched);
+            assertThat(watchedFrames).hasSize(1);
+            assertThat(watchedFrames.get(0).get("commentCnt")).isEqualTo(2);
+            assertThat(watchedFrames.get(0).get("likeCnt")).isEqualTo(1);
+            assertThat(frames.get(PostSubscriptionRegistry.POST_TOPIC_PREFIX + unwatched)).isEmpty();
+        } finally {
+            brokerChannel.unsubscribe(handler);
+            postSubscriptionRegistry.onDisconnect(new SessionDisconnectEvent(this, subscribe, "post-session", CloseStatus.NORMAL));
+        }
+    }
+
+    private Message<byte[]> subscribeFrame(String destination){
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId("post-session");
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
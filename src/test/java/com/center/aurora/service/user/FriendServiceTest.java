@@ -1,16 +1,29 @@
 package com.center.aurora.service.user;
 
+import com.center.aurora.config.AppProperties;
+import com.center.aurora.config.AppProperties.Friendship.Storage;
 import com.center.aurora.domain.user.Role;
 import com.center.aurora.domain.user.User;
+import com.center.aurora.domain.user.friend.Friend;
+import com.center.aurora.domain.user.friend.FriendId;
+import com.center.aurora.domain.user.friend.FriendPair;
+import com.center.aurora.domain.user.friend.FriendPairId;
+import com.center.aurora.domain.user.friend.FriendStatus;
+import com.center.aurora.repository.user.FriendPairRepository;
+import com.center.aurora.repository.user.FriendRepository;
 import com.center.aurora.repository.user.UserRepository;
 import com.center.aurora.service.user.dto.FriendListDto;
+import com.center.aurora.service.user.dto.FriendPageDto;
+import com.center.aurora.service.user.dto.FriendRecommendationDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +39,30 @@ class FriendServiceTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private FriendRepository friendRepository;
+
+    @Autowired
+    private FriendGraph friendGraph;
+
+    @Autowired
+    private FriendPairRepository friendPairRepository;
+
+    @Autowired
+    private FriendPairMigration friendPairMigration;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    private FriendRecommendationService friendRecommendationService;
+
+    @Autowired
+    private FriendshipStore friendshipStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @BeforeEach
     public void dbCleanUp() {
         userRepository.deleteAll();
@@ -110,4 +147,165 @@ class FriendServiceTest {
         assertThat(allFriends.size()).isEqualTo(1);
         assertThat(friend.getName()).isEqualTo("C");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void 친구의_친구를_함께아는_친구수_순으로_추천한다(){
+        //given
+        friendGraph.rebuild();
+        User userA = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        User userC = userRepository.save(User.builder().name("C").email("c@c.com").image("").role(Role.USER).bio("").build());
+        User userD = userRepository.save(User.builder().name("D").email("d@d.com").image("").role(Role.USER).bio("").build());
+        User userE = userRepository.save(User.builder().name("E").email("e@e.com").image("").role(Role.USER).bio("").build());
+
+        friendService.addFriend(userA.getId(), userB.getId());
+        friendService.addFriend(userA.getId(), userC.getId());
+        friendService.addFriend(userB.getId(), userD.getId());
+        friendService.addFriend(userC.getId(), userD.getId());
+        friendService.addFriend(userC.getId(), userE.getId());
+
+        //when
+        List<FriendRecommendationDto> before = friendRecommendationService.recommend(userA.getId(), 10);
+        friendService.addFriend(userA.getId(), userD.getId());
+        List<FriendRecommendationDto> after = friendRecommendationService.recommend(userA.getId(), 10);
+
+        //then
+        assertThat(before).extracting(FriendRecommendationDto::getName).containsExactly("D", "E");
+        assertThat(before).extracting(FriendRecommendationDto::getMutualFriendCount).containsExactly(2, 1);
+        assertThat(after).extracting(FriendRecommendationDto::getName).containsExactly("E");
+    }
+
+    @Test
+    public void 함께아는_친구수를_한번에_계산한다(){
+        //given
+        friendGraph.rebuild();
+        User userA = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        User userC = userRepository.save(User.builder().name("C").email("c@c.com").image("").role(Role.USER).bio("").build());
+        User userD = userRepository.save(User.builder().name("D").email("d@d.com").image("").role(Role.USER).bio("").build());
+        User userE = userRepository.save(User.builder().name("E").email("e@e.com").image("").role(Role.USER).bio("").build());
+
+        friendService.addFriend(userA.getId(), userB.getId());
+        friendService.addFriend(userA.getId(), userC.getId());
+        friendService.addFriend(userD.getId(), userB.getId());
+        friendService.addFriend(userD.getId(), userC.getId());
+        friendService.addFriend(userE.getId(), userB.getId());
+        List<Long> targets = List.of(userD.getId(), userE.getId(), userB.getId());
+
+        //when
+        Map<Long, Integer> counts = friendService.countMutualFriends(userA.getId(), targets);
+        List<Object[]> countsFromDb = friendRepository.countMutualFriends(userA.getId(), targets);
+        List<FriendListDto> mutual = friendService.findMutualFriends(userA.getId(), userD.getId());
+        List<Number> mutualFromDb = friendRepository.findMutualFriendIds(userA.getId(), userD.getId());
+
+        //then
+        assertThat(counts).containsEntry(userD.getId(), 2).containsEntry(userE.getId(), 1).containsEntry(userB.getId(), 0);
+        assertThat(countsFromDb).hasSize(2);
+        for (Object[] row : countsFromDb) {
+            assertThat(((Number) row[1]).intValue()).isEqualTo(counts.get(((Number) row[0]).longValue()));
+        }
+        assertThat(mutual).extracting(FriendListDto::getName).containsExactly("B", "C");
+        assertThat(mutualFromDb).extracting(Number::longValue).containsExactly(userB.getId(), userC.getId());
+    }
+
+    @Test
+    public void 친구목록을_이름순으로_페이지씩_조회한다(){
+        //given
+        User me = userRepository.save(User.builder().name("me").email("me@a.com").image("").role(Role.USER).bio("").build());
+        for (String name : List.of("D", "B", "A", "C", "B")) {
+            User friend = userRepository.save(User.builder().name(name).email(name + "@a.com").image("").role(Role.USER).bio("").build());
+            friendService.addFriend(me.getId(), friend.getId());
+        }
+
+        //when
+        FriendPageDto first = friendService.findFriends(me.getId(), null, null, 3);
+        FriendListDto last = first.getFriends().get(2);
+        FriendPageDto second = friendService.findFriends(me.getId(), last.getName(), last.getId(), 3);
+
+        //then
+        assertThat(first.getFriends()).extracting(FriendListDto::getName).containsExactly("A", "B", "B");
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(first.getFriendCount()).isEqualTo(5);
+        assertThat(second.getFriends()).extracting(FriendListDto::getName).containsExactly("C", "D");
+        assertThat(second.isHasNext()).isFalse();
+    }
+
+    @Test
+    public void 기존_친구관계를_한행으로_이관하고_양방향으로_조회한다(){
+        //given
+        friendPairRepository.deleteAll();
+        User userA = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        User userC = userRepository.save(User.builder().name("C").email("c@c.com").image("").role(Role.USER).bio("").build());
+        User userD = userRepository.save(User.builder().name("D").email("d@d.com").image("").role(Role.USER).bio("").build());
+        friendService.addFriend(userA.getId(), userB.getId());
+        friendService.addFriend(userD.getId(), userA.getId());
+        friendRepository.save(Friend.builder().id(new FriendId(userA.getId(), userC.getId())).me(userA).you(userC).status(FriendStatus.ONGOING).build());
+        friendRepository.save(Friend.builder().id(new FriendId(userC.getId(), userA.getId())).me(userC).you(userA).status(FriendStatus.ONGOING).build());
+        friendRepository.save(Friend.builder().id(new FriendId(userD.getId(), userC.getId())).me(userD).you(userC).status(FriendStatus.ONGOING).build());
+
+        //when
+        // 읽은 뒤에 friend 쪽이 바뀐 것처럼 friend 와 다른 상태의 쌍은 넣지 않는다.
+        int stale = friendPairRepository.insertIfMatchesFriend(List.of(new FriendPair(FriendPairId.of(userA.getId(), userC.getId()), FriendPair.FRIENDS)));
+        int migrated = friendPairMigration.migrate();
+        int migratedAgain = friendPairMigration.migrate();
+
+        //then
+        assertThat(stale).isEqualTo(0);
+        assertThat(migrated).isEqualTo(4);
+        assertThat(migratedAgain).isEqualTo(0);
+        assertThat(friendPairRepository.count()).isEqualTo(4);
+
+        appProperties.getFriendship().setStorage(Storage.PAIR);
+        try {
+            assertThat(friendService.getFriendStatuses(userA.getId(), List.of(userB.getId(), userC.getId(), userD.getId())))
+                    .containsEntry(userB.getId(), FriendStatus.FRIEND)
+                    .containsEntry(userC.getId(), FriendStatus.ONGOING)
+                    .containsEntry(userD.getId(), FriendStatus.FRIEND);
+            assertThat(friendService.getFriendStatuses(userD.getId(), List.of(userC.getId()))).containsEntry(userC.getId(), FriendStatus.ONGOING);
+            assertThat(friendService.getFriendStatuses(userC.getId(), List.of(userD.getId()))).containsEntry(userD.getId(), FriendStatus.NOT_FRIEND);
+            assertThat(friendService.findAllFriends(userA.getId())).extracting(FriendListDto::getName).containsExactly("B", "D");
+
+            friendService.deleteFriend(userA.getId(), userB.getId());
+            friendService.addFriend(userC.getId(), userD.getId());
+
+            assertThat(friendPairRepository.findById(FriendPairId.of(userA.getId(), userB.getId()))).isEmpty();
+            assertThat(friendPairRepository.findById(FriendPairId.of(userD.getId(), userC.getId())).get().statusOf(userC.getId()))
+                    .isEqualTo(FriendStatus.FRIEND);
+            assertThat(friendService.findAllFriends(userD.getId())).extracting(FriendListDto::getName).containsExactly("A", "C");
+            assertThat(friendService.findFriends(userA.getId(), null, null, 10).getFriendCount()).isEqualTo(1);
+            assertThat(friendshipStore.countMutualFriends(userA.getId(), List.of(userB.getId(), userC.getId())))
+                    .containsExactly(Map.entry(userC.getId(), 1));
+        } finally {
+            appProperties.getFriendship().setStorage(Storage.DIRECTED);
+            friendPairRepository.deleteAll();
+        }
+    }
+
+    @Test
+    public void 이관전_친구에게_다시_요청해도_친구관계가_바뀌지_않는다(){
+        //given
+        friendPairRepository.deleteAll();
+        User userA = userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("").role(Role.USER).bio("").build());
+        friendService.addFriend(userA.getId(), userB.getId());
+        appProperties.getFriendship().setStorage(Storage.DUAL);
+
+        try {
+            //when
+            Boolean requested = transactionTemplate.execute(status -> friendshipStore.requestIfAbsent(userA.getId(), userB.getId()));
+            int migrated = friendPairMigration.migrate();
+
+            //then
+            assertThat(requested).isFalse();
+            assertThat(migrated).isEqualTo(1);
+            assertThat(friendPairRepository.findById(FriendPairId.of(userA.getId(), userB.getId())).get().getState())
+                    .isEqualTo(FriendPair.FRIENDS);
+            assertThat(friendService.getFriendStatuses(userA.getId(), List.of(userB.getId())))
+                    .containsEntry(userB.getId(), FriendStatus.FRIEND);
+        } finally {
+            appProperties.getFriendship().setStorage(Storage.DIRECTED);
+            friendPairRepository.deleteAll();
+        }
+    }
+}
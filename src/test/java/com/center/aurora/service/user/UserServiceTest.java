@@ -2,21 +2,29 @@ package com.center.aurora.service.user;
 
 import com.center.aurora.domain.user.Role;
 import com.center.aurora.domain.user.User;
+import com.center.aurora.domain.user.UserChangedEvent;
 import com.center.aurora.domain.user.friend.Friend;
 import com.center.aurora.domain.user.friend.FriendId;
 import com.center.aurora.domain.user.friend.FriendStatus;
+import com.center.aurora.exception.BadRequestException;
 import com.center.aurora.repository.user.FriendRepository;
 import com.center.aurora.repository.user.UserRepository;
+import com.center.aurora.service.user.dto.RandomUserListDto;
 import com.center.aurora.service.user.dto.UserDto;
 import com.center.aurora.service.user.dto.UserListDto;
+import com.center.aurora.service.user.dto.UserSummary;
+import com.center.aurora.service.user.dto.UserUpdateDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 @SpringBootTest
 public class UserServiceTest {
@@ -30,6 +38,12 @@ public class UserServiceTest {
     @Autowired
     private FriendRepository friendRepository;
 
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private RandomUserSampler randomUserSampler;
+
     @BeforeEach
     public void dbCleanUp() {
         userRepository.deleteAll();
@@ -54,6 +68,49 @@ public class UserServiceTest {
         assertThat(Friends.get(0).getName()).isEqualTo("A");
     }
 
+    @Test
+    public void 초성검색(){
+        //given
+        userSearchIndex.rebuild();
+        userRepository.save(User.builder().name("김철수").email("a@a.com").image("").role(Role.USER).bio("").build());
+        userRepository.save(User.builder().name("김 철").email("b@b.com").image("").role(Role.USER).bio("").build());
+        userRepository.save(User.builder().name("김채원").email("c@c.com").image("").role(Role.USER).bio("").build());
+        userRepository.save(User.builder().name("이철수").email("d@d.com").image("").role(Role.USER).bio("").build());
+
+        //when
+        List<UserListDto> byChosung = userService.findUsersByName("ㄱㅊ");
+        List<UserListDto> byMixed = userService.findUsersByName("김ㅊㅅ");
+        List<UserListDto> byName = userService.findUsersByName("김철");
+        List<UserListDto> secondPage = userService.findUsersByName("ㄱㅊ", PageRequest.of(1, 2));
+
+        //then
+        assertThat(byChosung).extracting(UserListDto::getName).containsExactly("김 철", "김채원", "김철수");
+        assertThat(byMixed).extracting(UserListDto::getName).containsExactly("김철수");
+        assertThat(byName).extracting(UserListDto::getName).containsExactly("김 철", "김철수");
+        assertThat(secondPage).extracting(UserListDto::getName).containsExactly("김철수");
+    }
+
+    @Test
+    public void 검색_페이지_범위를_벗어나면_거절한다(){
+        //given
+        userSearchIndex.rebuild();
+        userRepository.save(User.builder().name("A").email("a@a.com").image("").role(Role.USER).bio("").build());
+
+        //when
+        Throwable overflow = catchThrowable(() -> userService.findUsersByName("A", PageRequest.of(Integer.MAX_VALUE / 2, 20)));
+        Throwable tooLarge = catchThrowable(() -> userService.findUsersByName("A", PageRequest.of(0, 10_000)));
+        Throwable negative = catchThrowable(() -> userSearchIndex.search("A", -1, 20));
+        List<Long> beyondIndex = userSearchIndex.search("A", Integer.MAX_VALUE, Integer.MAX_VALUE);
+        List<UserListDto> lastPage = userService.findUsersByName("A", PageRequest.of(UserSearchIndex.MAX_RESULTS / 100 - 1, 100));
+
+        //then
+        assertThat(overflow).isInstanceOf(BadRequestException.class);
+        assertThat(tooLarge).isInstanceOf(BadRequestException.class);
+        assertThat(negative).isInstanceOf(IllegalArgumentException.class);
+        assertThat(beyondIndex).isEmpty();
+        assertThat(lastPage).isEmpty();
+    }
+
     @Test
     public void 특정_유저_정보및_친구관계까지_받아온다() throws Exception{
         //given
@@ -106,4 +163,69 @@ public class UserServiceTest {
         assertThat(fromBToA.getStatus()).isEqualTo(FriendStatus.FRIEND.name());
         assertThat(fromBToC.getStatus()).isEqualTo(FriendStatus.NOT_FRIEND.name());
     }
+
+    @Test
+    public void 랜덤유저_추천친구는_나와_친구를_제외한다(){
+        //given
+        randomUserSampler.rebuild();
+        for (long i = 1; i <= 3; i++) {
+            randomUserSampler.onUserChanged(new UserChangedEvent(-i, "stale", "", false)); // 삭제 이벤트를 놓친 id
+        }
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            users.add(userRepository.save(User.builder().name("U" + i).email(i + "@r.com").image("").role(Role.USER).bio("").build()));
+        }
+        User me = users.get(0), friend = users.get(1), requested = users.get(2);
+        friendRepository.save(Friend.builder().id(new FriendId(me.getId(), friend.getId())).me(me).you(friend).status(FriendStatus.FRIEND).build());
+        friendRepository.save(Friend.builder().id(new FriendId(me.getId(), requested.getId())).me(me).you(requested).status(FriendStatus.ONGOING).build());
+
+        for (int i = 0; i < 20; i++) {
+            //when
+            List<RandomUserListDto> all = userService.getRandomUsers();
+            List<RandomUserListDto> suggested = userService.getRandomUsers(me.getId(), true);
+
+            //then
+            assertThat(all).hasSize(3).extracting(RandomUserListDto::getId).doesNotHaveDuplicates();
+            assertThat(suggested).hasSize(3).extracting(RandomUserListDto::getId)
+                    .doesNotHaveDuplicates()
+                    .doesNotContain(me.getId(), friend.getId(), requested.getId());
+        }
+    }
+
+    @Test
+    public void 검색결과에_친구상태를_한번에_채운다(){
+        //given
+        userSearchIndex.rebuild();
+        User me = userRepository.save(User.builder().name("me").email("me@a.com").image("").role(Role.USER).bio("").build());
+        User friend = userRepository.save(User.builder().name("S1").email("s1@a.com").image("").role(Role.USER).bio("").build());
+        User requested = userRepository.save(User.builder().name("S2").email("s2@a.com").image("").role(Role.USER).bio("").build());
+        User stranger = userRepository.save(User.builder().name("S3").email("s3@a.com").image("").role(Role.USER).bio("").build());
+        friendRepository.save(Friend.builder().id(new FriendId(me.getId(), friend.getId())).me(me).you(friend).status(FriendStatus.FRIEND).build());
+        friendRepository.save(Friend.builder().id(new FriendId(me.getId(), requested.getId())).me(me).you(requested).status(FriendStatus.ONGOING).build());
+
+        //when
+        List<UserListDto> result = userService.findUsersByName("S", PageRequest.of(0, 10), me.getId());
+        List<UserListDto> anonymous = userService.findUsersByName("S", PageRequest.of(0, 10), null);
+
+        //then
+        assertThat(result).extracting(UserListDto::getStatus).containsExactly("FRIEND", "ONGOING", "NOT_FRIEND");
+        assertThat(anonymous).extracting(UserListDto::getStatus).containsOnly("NOT_FRIEND");
+    }
+
+    @Test
+    public void 유저_요약정보를_한번에_조회하고_수정되면_갱신된다() throws Exception{
+        //given
+        User userA = userRepository.save(User.builder().name("A").email("a@a.com").image("a.png").role(Role.USER).bio("").build());
+        User userB = userRepository.save(User.builder().name("B").email("b@b.com").image("b.png").role(Role.USER).bio("").build());
+        List<UserSummary> before = userService.getUserSummaries(List.of(userB.getId(), userA.getId(), -1L));
+
+        //when
+        userService.userUpdate(userA.getId(), UserUpdateDto.builder().name("AA").bio("").isImageChanged(false).build());
+        List<UserSummary> after = userService.getUserSummaries(List.of(userA.getId()));
+
+        //then
+        assertThat(before).extracting(UserSummary::getName).containsExactly("B", "A");
+        assertThat(before).extracting(UserSummary::getAvatar).containsExactly("b.png", "a.png");
+        assertThat(after).extracting(UserSummary::getName).containsExactly("AA");
+    }
 }
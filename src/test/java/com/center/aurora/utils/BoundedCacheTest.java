@@ -0,0 +1,78 @@
+package com.center.aurora.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoundedCacheTest {
+
+    @DisplayName("가득 차면 가장 오래 쓰이지 않은 항목을 지운다")
+    @Test
+    void evictLeastRecentlyUsed(){
+        //given
+        BoundedCache<Long, String> cache = new BoundedCache<>(2);
+        cache.put(1L, "a");
+        cache.put(2L, "b");
+
+        //when
+        cache.get(1L);
+        cache.put(3L, "c");
+
+        //then
+        assertThat(cache.get(1L)).isEqualTo("a");
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.get(3L)).isEqualTo("c");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @DisplayName("버전을 받은 뒤 무효화되면 읽어온 값을 넣지 않는다")
+    @Test
+    void putIfUnchangedAfterInvalidate(){
+        //given
+        BoundedCache<Long, String> cache = new BoundedCache<>(10);
+        long version = cache.version(1L);
+
+        //when
+        cache.invalidate(1L);
+        boolean put = cache.putIfUnchanged(1L, "stale", version);
+
+        //then
+        assertThat(put).isFalse();
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.putIfUnchanged(1L, "fresh", cache.version(1L))).isTrue();
+        assertThat(cache.get(1L)).isEqualTo("fresh");
+    }
+
+    @DisplayName("제자리 수정이 있었으면 읽어온 값으로 덮어쓰지 않는다")
+    @Test
+    void putIfUnchangedAfterMarkChanged(){
+        //given
+        BoundedCache<Long, StringBuilder> cache = new BoundedCache<>(10);
+        cache.put(1L, new StringBuilder("a"));
+        long version = cache.version(1L);
+
+        //when
+        cache.markChanged(1L).append("b");
+        boolean put = cache.putIfUnchanged(1L, new StringBuilder("a"), version);
+
+        //then
+        assertThat(put).isFalse();
+        assertThat(cache.get(1L).toString()).isEqualTo("ab");
+    }
+
+    @DisplayName("조건에 맞는 항목만 지운다")
+    @Test
+    void removeIf(){
+        //given
+        BoundedCache<Long, Integer> cache = new BoundedCache<>(10);
+        for (long i = 0; i < 5; i++) cache.put(i, (int) i);
+
+        //when
+        int removed = cache.removeIf((key, value) -> value % 2 == 0);
+
+        //then
+        assertThat(removed).isEqualTo(3);
+        assertThat(cache.keys()).containsExactlyInAnyOrder(1L, 3L);
+    }
+}
@@ -0,0 +1,78 @@
+package com.center.aurora.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RoaringBitmapTest {
+
+    @DisplayName("추가/삭제/포함 여부")
+    @Test
+    void addRemoveContains(){
+        //given
+        RoaringBitmap bitmap = new RoaringBitmap();
+
+        //when
+        bitmap.add(1L);
+        bitmap.add(70_000L);
+        bitmap.add(70_000L);
+        bitmap.add(5_000_000_000L);
+        bitmap.remove(1L);
+
+        //then
+        assertThat(bitmap.contains(1L)).isFalse();
+        assertThat(bitmap.contains(70_000L)).isTrue();
+        assertThat(bitmap.contains(5_000_000_000L)).isTrue();
+        assertThat(bitmap.cardinality()).isEqualTo(2);
+    }
+
+    @DisplayName("배열 컨테이너와 비트맵 컨테이너 전환 후에도 같은 결과")
+    @Test
+    void containerConversion(){
+        //given
+        RoaringBitmap bitmap = new RoaringBitmap();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        //when
+        for (int i = 0; i < 20_000; i++) {
+            long value = random.nextInt(200_000);
+            bitmap.add(value);
+            expected.add(value);
+        }
+        for (int i = 0; i < 15_000; i++) {
+            long value = random.nextInt(200_000);
+            bitmap.remove(value);
+            expected.remove(value);
+        }
+
+        //then
+        assertThat(bitmap.cardinality()).isEqualTo(expected.size());
+        for (long value = 0; value < 200_000; value++) {
+            assertThat(bitmap.contains(value)).isEqualTo(expected.contains(value));
+        }
+    }
+
+    @DisplayName("직렬화 후 복원")
+    @Test
+    void serialize(){
+        //given
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (long value = 0; value < 10_000; value += 2) bitmap.add(value);
+        bitmap.add(1_000_000L);
+
+        //when
+        RoaringBitmap restored = RoaringBitmap.deserialize(bitmap.serialize());
+
+        //then
+        assertThat(restored.cardinality()).isEqualTo(bitmap.cardinality());
+        assertThat(restored.contains(9_998L)).isTrue();
+        assertThat(restored.contains(9_999L)).isFalse();
+        assertThat(restored.contains(1_000_000L)).isTrue();
+    }
+}